@@ -1,10 +1,12 @@
 package cofh.core.block;
 
 import cofh.core.block.entity.EnderAirTile;
-import cofh.lib.api.block.entity.ITickableTile;
+import cofh.core.util.BlockExpiryTimers;
+import cofh.lib.api.block.IExpiringBlock;
 import cofh.lib.util.Utils;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.effect.MobEffectInstance;
@@ -14,17 +16,14 @@ import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.AirBlock;
+import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.EntityBlock;
 import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
-import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
-import org.jetbrains.annotations.Nullable;
 
 import static cofh.core.init.CoreMobEffects.ENDERFERENCE;
-import static cofh.core.init.CoreTileEntities.ENDER_AIR_TILE;
 
-public class EnderAirBlock extends AirBlock implements EntityBlock {
+public class EnderAirBlock extends AirBlock implements EntityBlock, IExpiringBlock {
 
     protected static boolean teleport = true;
     protected static int duration = 40;
@@ -40,12 +39,28 @@ public class EnderAirBlock extends AirBlock implements EntityBlock {
         return new EnderAirTile(pos, state);
     }
 
-    @Nullable
     @Override
-    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> actualType) {
+    public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean isMoving) {
 
-        return ITickableTile.createTicker(level, actualType, ENDER_AIR_TILE.get(), EnderAirTile.class);
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.schedule(serverLevel, pos, this, getDuration(level.random));
+        }
+    }
+
+    // region IExpiringBlock
+    @Override
+    public int getDuration(RandomSource random) {
+
+        return EnderAirTile.DEFAULT_DURATION;
+    }
+
+    @Override
+    public boolean expire(ServerLevel level, BlockPos pos, BlockState state) {
+
+        level.setBlockAndUpdate(pos, Blocks.AIR.defaultBlockState());
+        return true;
     }
+    // endregion
 
     @Override
     public void animateTick(BlockState stateIn, Level worldIn, BlockPos pos, RandomSource rand) {
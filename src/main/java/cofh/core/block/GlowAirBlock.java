@@ -1,23 +1,21 @@
 package cofh.core.block;
 
 import cofh.core.block.entity.GlowAirTile;
-import cofh.lib.api.block.entity.ITickableTile;
+import cofh.core.util.BlockExpiryTimers;
+import cofh.lib.api.block.IExpiringBlock;
 import cofh.lib.util.Utils;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.particles.ParticleTypes;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.AirBlock;
+import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.EntityBlock;
 import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
-import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
-import org.jetbrains.annotations.Nullable;
 
-import static cofh.core.init.CoreTileEntities.GLOW_AIR_TILE;
-
-public class GlowAirBlock extends AirBlock implements EntityBlock {
+public class GlowAirBlock extends AirBlock implements EntityBlock, IExpiringBlock {
 
     public GlowAirBlock(Properties builder) {
 
@@ -30,12 +28,28 @@ public class GlowAirBlock extends AirBlock implements EntityBlock {
         return new GlowAirTile(pos, state);
     }
 
-    @Nullable
     @Override
-    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> actualType) {
+    public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean isMoving) {
+
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.schedule(serverLevel, pos, this, getDuration(level.random));
+        }
+    }
+
+    // region IExpiringBlock
+    @Override
+    public int getDuration(RandomSource random) {
+
+        return GlowAirTile.DEFAULT_DURATION;
+    }
+
+    @Override
+    public boolean expire(ServerLevel level, BlockPos pos, BlockState state) {
 
-        return ITickableTile.createTicker(level, actualType, GLOW_AIR_TILE.get(), GlowAirTile.class);
+        level.setBlockAndUpdate(pos, Blocks.AIR.defaultBlockState());
+        return true;
     }
+    // endregion
 
     @Override
     public void animateTick(BlockState stateIn, Level worldIn, BlockPos pos, RandomSource rand) {
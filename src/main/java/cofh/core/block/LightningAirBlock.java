@@ -1,20 +1,23 @@
 package cofh.core.block;
 
 import cofh.core.block.entity.LightningAirTile;
-import cofh.lib.api.block.entity.ITickableTile;
+import cofh.core.entity.ElectricArc;
+import cofh.core.util.BlockExpiryTimers;
+import cofh.lib.api.block.IExpiringBlock;
+import cofh.lib.util.Utils;
+import cofh.lib.util.helpers.MathHelper;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.AirBlock;
+import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.EntityBlock;
 import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
-import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
-import org.jetbrains.annotations.Nullable;
+import net.minecraft.world.phys.Vec3;
 
-import static cofh.core.init.CoreTileEntities.LIGHTNING_AIR_TILE;
-
-public class LightningAirBlock extends AirBlock implements EntityBlock {
+public class LightningAirBlock extends AirBlock implements EntityBlock, IExpiringBlock {
 
     public LightningAirBlock(Properties properties) {
 
@@ -27,12 +30,33 @@ public class LightningAirBlock extends AirBlock implements EntityBlock {
         return new LightningAirTile(pos, state);
     }
 
-    @Nullable
     @Override
-    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> actualType) {
+    public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean isMoving) {
+
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.schedule(serverLevel, pos, this, getDuration(level.random));
+        }
+    }
+
+    // region IExpiringBlock
+    @Override
+    public int getDuration(RandomSource random) {
+
+        return MathHelper.nextInt(random, 20, LightningAirTile.DEFAULT_DURATION);
+    }
+
+    @Override
+    public boolean expire(ServerLevel level, BlockPos pos, BlockState state) {
 
-        return ITickableTile.createTicker(level, actualType, LIGHTNING_AIR_TILE.get(), LightningAirTile.class);
+        if (!level.canSeeSky(pos)) {
+            return false;
+        }
+        level.addFreshEntity(new ElectricArc(level, Vec3.atBottomCenterOf(pos)));
+        Utils.spawnLightningBolt(level, pos, null);
+        level.setBlockAndUpdate(pos, Blocks.AIR.defaultBlockState());
+        return true;
     }
+    // endregion
 
     //    
     //    @Override
@@ -1,25 +1,23 @@
 package cofh.core.block;
 
 import cofh.core.block.entity.SignalAirTile;
-import cofh.lib.api.block.entity.ITickableTile;
+import cofh.core.util.BlockExpiryTimers;
+import cofh.lib.api.block.IExpiringBlock;
 import cofh.lib.util.Utils;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.particles.DustParticleOptions;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.AirBlock;
+import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.EntityBlock;
 import net.minecraft.world.level.block.entity.BlockEntity;
-import net.minecraft.world.level.block.entity.BlockEntityTicker;
-import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
-import org.jetbrains.annotations.Nullable;
 
-import static cofh.core.init.CoreTileEntities.SIGNAL_AIR_TILE;
-
-public class SignalAirBlock extends AirBlock implements EntityBlock {
+public class SignalAirBlock extends AirBlock implements EntityBlock, IExpiringBlock {
 
     public SignalAirBlock(Properties builder) {
 
@@ -32,12 +30,28 @@ public class SignalAirBlock extends AirBlock implements EntityBlock {
         return new SignalAirTile(pos, state);
     }
 
-    @Nullable
     @Override
-    public <T extends BlockEntity> BlockEntityTicker<T> getTicker(Level level, BlockState state, BlockEntityType<T> actualType) {
+    public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean isMoving) {
+
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.schedule(serverLevel, pos, this, getDuration(level.random));
+        }
+    }
+
+    // region IExpiringBlock
+    @Override
+    public int getDuration(RandomSource random) {
 
-        return ITickableTile.createTicker(level, actualType, SIGNAL_AIR_TILE.get(), SignalAirTile.class);
+        return SignalAirTile.DEFAULT_DURATION;
+    }
+
+    @Override
+    public boolean expire(ServerLevel level, BlockPos pos, BlockState state) {
+
+        level.setBlockAndUpdate(pos, Blocks.AIR.defaultBlockState());
+        return true;
     }
+    // endregion
 
     @Override
     public boolean isSignalSource(BlockState state) {
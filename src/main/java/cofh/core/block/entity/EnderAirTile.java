@@ -1,16 +1,18 @@
 package cofh.core.block.entity;
 
-import cofh.lib.api.block.entity.ITickableTile;
+import cofh.core.util.BlockExpiryTimers;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.block.Blocks;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
 import static cofh.core.init.CoreTileEntities.ENDER_AIR_TILE;
 
-public class EnderAirTile extends BlockEntity implements ITickableTile {
+public class EnderAirTile extends BlockEntity {
 
-    protected int duration = 200;
+    public static final int DEFAULT_DURATION = 200;
+
+    protected int duration = DEFAULT_DURATION;
 
     public EnderAirTile(BlockPos pos, BlockState state) {
 
@@ -18,26 +20,31 @@ public class EnderAirTile extends BlockEntity implements ITickableTile {
     }
 
     @Override
-    public void tick() {
+    public void onLoad() {
 
-        if (level == null) {
-            return;
-        }
-        if (--duration <= 0) {
-            this.level.setBlockAndUpdate(worldPosition, Blocks.AIR.defaultBlockState());
-            this.level.removeBlockEntity(this.worldPosition);
-            this.setRemoved();
+        super.onLoad();
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.scheduleIfAbsent(serverLevel, worldPosition, getBlockState().getBlock(), duration);
         }
     }
 
     public int getDuration() {
 
+        if (level instanceof ServerLevel serverLevel) {
+            int remaining = BlockExpiryTimers.getRemaining(serverLevel, worldPosition);
+            if (remaining >= 0) {
+                return remaining;
+            }
+        }
         return duration;
     }
 
     public void setDuration(int duration) {
 
         this.duration = duration;
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.schedule(serverLevel, worldPosition, getBlockState().getBlock(), duration);
+        }
     }
 
 }
@@ -1,21 +1,19 @@
 package cofh.core.block.entity;
 
-import cofh.core.entity.ElectricArc;
-import cofh.lib.api.block.entity.ITickableTile;
-import cofh.lib.util.Utils;
+import cofh.core.util.BlockExpiryTimers;
 import cofh.lib.util.helpers.MathHelper;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.phys.Vec3;
 
 import static cofh.core.init.CoreTileEntities.LIGHTNING_AIR_TILE;
 
-public class LightningAirTile extends BlockEntity implements ITickableTile {
+public class LightningAirTile extends BlockEntity {
 
-    protected int duration = 100;
+    public static final int DEFAULT_DURATION = 100;
+
+    protected int duration = DEFAULT_DURATION;
 
     public LightningAirTile(BlockPos pos, BlockState state) {
 
@@ -24,34 +22,31 @@ public class LightningAirTile extends BlockEntity implements ITickableTile {
     }
 
     @Override
-    public void tick() {
-
-        if (level == null) {
-            return;
-        }
-        if (--duration <= 0) {
-
-            if (level.canSeeSky(worldPosition) && level instanceof ServerLevel) {
-                level.addFreshEntity(new ElectricArc(level, Vec3.atBottomCenterOf(getBlockPos())));
+    public void onLoad() {
 
-                if (level.canSeeSky(worldPosition) && level instanceof ServerLevel) {
-                    Utils.spawnLightningBolt(level, worldPosition, null);
-                }
-                this.level.setBlockAndUpdate(worldPosition, Blocks.AIR.defaultBlockState());
-                this.level.removeBlockEntity(this.worldPosition);
-                this.setRemoved();
-            }
+        super.onLoad();
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.scheduleIfAbsent(serverLevel, worldPosition, getBlockState().getBlock(), duration);
         }
     }
 
     public int getDuration() {
 
+        if (level instanceof ServerLevel serverLevel) {
+            int remaining = BlockExpiryTimers.getRemaining(serverLevel, worldPosition);
+            if (remaining >= 0) {
+                return remaining;
+            }
+        }
         return duration;
     }
 
     public void setDuration(int duration) {
 
         this.duration = duration;
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.schedule(serverLevel, worldPosition, getBlockState().getBlock(), duration);
+        }
     }
 
 }
@@ -1,17 +1,19 @@
 package cofh.core.block.entity;
 
-import cofh.lib.api.block.entity.ITickableTile;
+import cofh.core.util.BlockExpiryTimers;
 import cofh.lib.util.helpers.MathHelper;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.block.Blocks;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 
 import static cofh.core.init.CoreTileEntities.SIGNAL_AIR_TILE;
 
-public class SignalAirTile extends BlockEntity implements ITickableTile {
+public class SignalAirTile extends BlockEntity {
 
-    protected int duration = 200;
+    public static final int DEFAULT_DURATION = 200;
+
+    protected int duration = DEFAULT_DURATION;
     protected int power = 15;
 
     public SignalAirTile(BlockPos pos, BlockState state) {
@@ -19,21 +21,26 @@ public class SignalAirTile extends BlockEntity implements ITickableTile {
         super(SIGNAL_AIR_TILE.get(), pos, state);
     }
 
+    /**
+     * Expiry is tracked by {@link BlockExpiryTimers}; this picks up blocks from worlds saved before that, which have no timer yet.
+     */
     @Override
-    public void tick() {
+    public void onLoad() {
 
-        if (level == null) {
-            return;
-        }
-        if (--duration <= 0) {
-            this.level.setBlockAndUpdate(worldPosition, Blocks.AIR.defaultBlockState());
-            this.level.removeBlockEntity(this.worldPosition);
-            this.setRemoved();
+        super.onLoad();
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.scheduleIfAbsent(serverLevel, worldPosition, getBlockState().getBlock(), duration);
         }
     }
 
     public int getDuration() {
 
+        if (level instanceof ServerLevel serverLevel) {
+            int remaining = BlockExpiryTimers.getRemaining(serverLevel, worldPosition);
+            if (remaining >= 0) {
+                return remaining;
+            }
+        }
         return duration;
     }
 
@@ -45,6 +52,9 @@ public class SignalAirTile extends BlockEntity implements ITickableTile {
     public void setDuration(int duration) {
 
         this.duration = duration;
+        if (level instanceof ServerLevel serverLevel) {
+            BlockExpiryTimers.schedule(serverLevel, worldPosition, getBlockState().getBlock(), duration);
+        }
     }
 
     public void setPower(int power) {
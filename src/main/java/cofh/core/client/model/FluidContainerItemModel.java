@@ -8,7 +8,6 @@ import com.mojang.datafixers.util.Pair;
 import com.mojang.math.Quaternion;
 import com.mojang.math.Transformation;
 import com.mojang.math.Vector3f;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.client.renderer.block.model.ItemOverrides;
@@ -34,8 +33,10 @@ import net.minecraftforge.registries.ForgeRegistries;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import static cofh.lib.util.Constants.BUCKET_VOLUME;
@@ -49,6 +50,10 @@ public final class FluidContainerItemModel implements IUnbakedGeometry<FluidCont
     // Transformer to set quads to max brightness
     private static final IQuadTransformer MAX_LIGHTMAP_TRANSFORMER = QuadTransformers.applyingLightmap(0x00F000F0);
 
+    // Override cache lookups, across every fluid container model.
+    private static final LongAdder OVERRIDE_HITS = new LongAdder();
+    private static final LongAdder OVERRIDE_MISSES = new LongAdder();
+
     @Nonnull
     private final FluidStack fluidStack;
 
@@ -57,6 +62,24 @@ public final class FluidContainerItemModel implements IUnbakedGeometry<FluidCont
         this.fluidStack = fluidStack;
     }
 
+    // region METRICS
+    public static long getOverrideHits() {
+
+        return OVERRIDE_HITS.sum();
+    }
+
+    public static long getOverrideMisses() {
+
+        return OVERRIDE_MISSES.sum();
+    }
+
+    public static void resetOverrideStats() {
+
+        OVERRIDE_HITS.reset();
+        OVERRIDE_MISSES.reset();
+    }
+    // endregion
+
     public FluidContainerItemModel withProperties(FluidStack newFluid) {
 
         return new FluidContainerItemModel(newFluid);
@@ -148,9 +171,23 @@ public final class FluidContainerItemModel implements IUnbakedGeometry<FluidCont
 
     }
 
+    /**
+     * Baked variants are keyed by what the bake actually depends on - the fluid and its still texture - rather than by the full fluid
+     * stack, so NBT which does not change the texture (e.g. potion contents) does not produce new models. The cache is bounded and
+     * evicts the least recently used variant.
+     */
     private static final class ContainedFluidOverrideHandler extends ItemOverrides {
 
-        private final Map<Integer, BakedModel> cache = new Int2ObjectOpenHashMap<>(); // contains all the baked models since they'll never change
+        private static final int MAX_CACHED_MODELS = 64;
+
+        private final Map<VariantKey, BakedModel> cache = new LinkedHashMap<>(16, 0.75F, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<VariantKey, BakedModel> eldest) {
+
+                return size() > MAX_CACHED_MODELS;
+            }
+        };
         private final ModelBakery bakery;
         private final IGeometryBakingContext owner;
         private final FluidContainerItemModel parent;
@@ -166,15 +203,23 @@ public final class FluidContainerItemModel implements IUnbakedGeometry<FluidCont
         public BakedModel resolve(BakedModel originalModel, ItemStack stack, @Nullable ClientLevel world, @Nullable LivingEntity entity, int seed) {
 
             FluidStack fluidStack = FluidHelper.getFluidContainedInItem(stack).orElse(FluidStack.EMPTY);
-            int fluidHash = FluidHelper.fluidHashcode(fluidStack);
-            if (!cache.containsKey(fluidHash)) {
-                FluidContainerItemModel unbaked = this.parent.withProperties(fluidStack);
-                BakedModel bakedModel = unbaked.bake(owner, bakery, Material::sprite, BlockModelRotation.X0_Y0, this, new ResourceLocation(ID_COFH_CORE, "fluid_container_override"));
-                cache.put(fluidHash, bakedModel);
+            Fluid fluid = fluidStack.getFluid();
+            VariantKey key = new VariantKey(fluid, fluid == Fluids.EMPTY ? null : IClientFluidTypeExtensions.of(fluid).getStillTexture(fluidStack));
+
+            BakedModel bakedModel = cache.get(key);
+            if (bakedModel != null) {
+                OVERRIDE_HITS.increment();
                 return bakedModel;
             }
-            return cache.get(fluidHash);
+            OVERRIDE_MISSES.increment();
+            FluidContainerItemModel unbaked = this.parent.withProperties(fluidStack);
+            bakedModel = unbaked.bake(owner, bakery, Material::sprite, BlockModelRotation.X0_Y0, this, new ResourceLocation(ID_COFH_CORE, "fluid_container_override"));
+            cache.put(key, bakedModel);
+            return bakedModel;
         }
+    }
+
+    private record VariantKey(Fluid fluid, @Nullable ResourceLocation texture) {
 
     }
 
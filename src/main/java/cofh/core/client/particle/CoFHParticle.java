@@ -13,8 +13,6 @@ import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.core.BlockPos;
 
-import java.util.ArrayDeque;
-
 /**
  * The base class for CoFH particles.
  */
@@ -45,7 +43,7 @@ public abstract class CoFHParticle extends Particle {
     @Override
     public void render(VertexConsumer consumer, Camera cam, float partialTicks) {
 
-        CoreClientEvents.delayedRenderParticles.computeIfAbsent(getRenderType(), type -> new ArrayDeque<>()).offer(this);
+        CoreClientEvents.PARTICLE_BATCH.add(this);
     }
 
     public void render(PoseStack stack, MultiBufferSource buffer, VertexConsumer consumer, float pTicks) {
@@ -66,6 +64,21 @@ public abstract class CoFHParticle extends Particle {
         stack.popPose();
     }
 
+    /**
+     * Whether this particle can be drawn through {@link #render(ParticleInstancer, PoseStack, float)} instead of the vertex consumer.
+     */
+    public boolean isInstanced() {
+
+        return false;
+    }
+
+    /**
+     * Queues this particle as one instance. Only called when {@link #isInstanced()} is true and the batch has instancing enabled.
+     */
+    public void render(ParticleInstancer instancer, PoseStack stack, float pTicks) {
+
+    }
+
     /**
      * Method for rendering impl.
      *
@@ -97,6 +110,14 @@ public abstract class CoFHParticle extends Particle {
         return this.level.hasChunkAt(blockpos) ? LevelRenderer.getLightColor(this.level, blockpos) : 0;
     }
 
+    double distanceToSqr(double x, double y, double z) {
+
+        double dx = this.x - x;
+        double dy = this.y - y;
+        double dz = this.z - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
     protected void setLifetime(float duration, float delay) {
 
         this.delay = delay;
@@ -0,0 +1,192 @@
+package cofh.core.client.particle;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.Tesselator;
+import it.unimi.dsi.fastutil.Swapper;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.client.particle.ParticleRenderType;
+import net.minecraft.client.renderer.GameRenderer;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.texture.TextureManager;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Arrays;
+
+/**
+ * Particles deferred from the vanilla particle pass, grouped by {@link ParticleRenderType}.
+ * <p>
+ * Buckets are created the first time a render type is seen and reused every frame after; their arrays only ever grow, so a steady
+ * particle count costs no allocation. Each bucket is drawn back to front so translucent particles blend correctly.
+ */
+public final class ParticleBatch {
+
+    private final Reference2IntOpenHashMap<ParticleRenderType> slots = new Reference2IntOpenHashMap<>();
+    private Bucket[] buckets = new Bucket[0];
+    private final ParticleInstancer instancer = new ParticleInstancer();
+
+    private int deferred;
+    private int lastFrame;
+    private int peakFrame;
+
+    public ParticleBatch() {
+
+        slots.defaultReturnValue(-1);
+    }
+
+    public void add(CoFHParticle particle) {
+
+        ParticleRenderType type = particle.getRenderType();
+        int slot = slots.getInt(type);
+        if (slot < 0) {
+            slot = buckets.length;
+            buckets = Arrays.copyOf(buckets, slot + 1);
+            buckets[slot] = new Bucket(type);
+            slots.put(type, slot);
+        }
+        buckets[slot].add(particle);
+        ++deferred;
+    }
+
+    /**
+     * Renders and clears every deferred particle. The pose stack is expected to already be translated by the negated camera position.
+     */
+    public void render(PoseStack stack, MultiBufferSource buffer, float partialTick, Vec3 camera, TextureManager manager) {
+
+        Tesselator tesselator = Tesselator.getInstance();
+        BufferBuilder consumer = tesselator.getBuilder();
+        boolean instancing = ParticleInstancer.isEnabled();
+
+        for (Bucket bucket : buckets) {
+            if (bucket.size == 0) {
+                continue;
+            }
+            bucket.sort(camera);
+            RenderSystem.setShader(GameRenderer::getParticleShader);
+            RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
+
+            bucket.type.begin(consumer, manager);
+            if (instancing) {
+                renderMixed(bucket, stack, buffer, partialTick, tesselator, consumer, manager);
+            } else {
+                for (int i = 0; i < bucket.size; ++i) {
+                    bucket.particles[i].render(stack, buffer, consumer, partialTick);
+                }
+            }
+            bucket.type.end(tesselator);
+            instancer.draw();
+            bucket.clear();
+        }
+        lastFrame = deferred;
+        peakFrame = Math.max(peakFrame, deferred);
+        deferred = 0;
+    }
+
+    /**
+     * Sends instanced particles to the instancer and the rest to the vertex consumer. Whenever the path changes, the other one is flushed
+     * first so the back-to-front order still holds.
+     */
+    private void renderMixed(Bucket bucket, PoseStack stack, MultiBufferSource buffer, float partialTick, Tesselator tesselator, BufferBuilder consumer, TextureManager manager) {
+
+        boolean vertices = false;
+        for (int i = 0; i < bucket.size; ++i) {
+            CoFHParticle particle = bucket.particles[i];
+            if (particle.isInstanced()) {
+                if (vertices) {
+                    bucket.type.end(tesselator);
+                    bucket.type.begin(consumer, manager);
+                    vertices = false;
+                }
+                particle.render(instancer, stack, partialTick);
+            } else {
+                instancer.draw();
+                particle.render(stack, buffer, consumer, partialTick);
+                vertices = true;
+            }
+        }
+    }
+
+    // region METRICS
+
+    /**
+     * Number of particles rendered by the last call to {@link #render}.
+     */
+    public int getDeferredLastFrame() {
+
+        return lastFrame;
+    }
+
+    public int getPeakDeferred() {
+
+        return peakFrame;
+    }
+
+    public int getCapacity() {
+
+        int capacity = 0;
+        for (Bucket bucket : buckets) {
+            capacity += bucket.particles.length;
+        }
+        return capacity;
+    }
+    // endregion
+
+    // region BUCKET
+    private static class Bucket implements IntComparator, Swapper {
+
+        final ParticleRenderType type;
+        CoFHParticle[] particles = new CoFHParticle[16];
+        double[] depths = new double[16];
+        int size;
+
+        Bucket(ParticleRenderType type) {
+
+            this.type = type;
+        }
+
+        void add(CoFHParticle particle) {
+
+            if (size == particles.length) {
+                particles = Arrays.copyOf(particles, size * 2);
+                depths = Arrays.copyOf(depths, size * 2);
+            }
+            particles[size++] = particle;
+        }
+
+        void sort(Vec3 camera) {
+
+            for (int i = 0; i < size; ++i) {
+                depths[i] = particles[i].distanceToSqr(camera.x, camera.y, camera.z);
+            }
+            it.unimi.dsi.fastutil.Arrays.quickSort(0, size, this, this);
+        }
+
+        void clear() {
+
+            Arrays.fill(particles, 0, size, null);
+            size = 0;
+        }
+
+        // Farthest first.
+        @Override
+        public int compare(int a, int b) {
+
+            return Double.compare(depths[b], depths[a]);
+        }
+
+        @Override
+        public void swap(int a, int b) {
+
+            CoFHParticle particle = particles[a];
+            particles[a] = particles[b];
+            particles[b] = particle;
+            double depth = depths[a];
+            depths[a] = depths[b];
+            depths[b] = depth;
+        }
+
+    }
+    // endregion
+}
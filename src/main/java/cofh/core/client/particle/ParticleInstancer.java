@@ -0,0 +1,191 @@
+package cofh.core.client.particle;
+
+import cofh.core.config.CoreClientConfig;
+import cofh.core.init.CoreShaders;
+import cofh.core.util.helpers.vfx.Color;
+import com.google.common.collect.ImmutableMap;
+import com.mojang.blaze3d.platform.GlStateManager;
+import com.mojang.blaze3d.platform.Window;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferUploader;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormatElement;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Draws camera-facing sprite quads with one instanced draw call instead of four CPU-built vertices each.
+ * <p>
+ * A static buffer holds the four quad corners; each instance adds a view-space center, rotation, half size, sprite UVs, color and packed
+ * light, and {@code cofh_core:particle_instanced} expands them the same way {@link SpriteParticle} does on the CPU. Needs OpenGL 3.3 for
+ * attribute divisors, so callers must check {@link #isEnabled()} and keep the CPU path as the fallback. Render thread only.
+ */
+public final class ParticleInstancer {
+
+    /**
+     * Attribute layout of the instanced shader. Only the names and their order matter; locations are bound in this order.
+     */
+    public static final VertexFormat FORMAT = new VertexFormat(ImmutableMap.<String, VertexFormatElement>builder()
+            .put("Corner", new VertexFormatElement(0, VertexFormatElement.Type.FLOAT, VertexFormatElement.Usage.GENERIC, 2))
+            .put("Center", new VertexFormatElement(0, VertexFormatElement.Type.FLOAT, VertexFormatElement.Usage.GENERIC, 3))
+            .put("Rotation", new VertexFormatElement(0, VertexFormatElement.Type.FLOAT, VertexFormatElement.Usage.GENERIC, 1))
+            .put("HalfSize", new VertexFormatElement(0, VertexFormatElement.Type.FLOAT, VertexFormatElement.Usage.GENERIC, 1))
+            .put("UVRect", new VertexFormatElement(0, VertexFormatElement.Type.FLOAT, VertexFormatElement.Usage.GENERIC, 4))
+            .put("Color", new VertexFormatElement(0, VertexFormatElement.Type.UBYTE, VertexFormatElement.Usage.GENERIC, 4))
+            .put("UV2", new VertexFormatElement(0, VertexFormatElement.Type.SHORT, VertexFormatElement.Usage.GENERIC, 2))
+            .build());
+
+    // Center (3f), Rotation (f), HalfSize (f), UVRect (4f), Color (4ub), UV2 (2s).
+    private static final int STRIDE = 44;
+
+    private static Boolean supported;
+
+    private ByteBuffer data = MemoryUtil.memAlloc(STRIDE * 256);
+    private int count;
+
+    private int vao = -1;
+    private int quadBuffer;
+    private int instanceBuffer;
+
+    public static boolean isEnabled() {
+
+        return CoreClientConfig.enableParticleInstancing.get() && isSupported();
+    }
+
+    public static boolean isSupported() {
+
+        if (supported == null) {
+            supported = GL.getCapabilities().OpenGL33;
+        }
+        return supported;
+    }
+
+    public void add(float x, float y, float z, float rotation, float halfSize, TextureAtlasSprite sprite, Color color, int packedLight) {
+
+        if (data.remaining() < STRIDE) {
+            int position = data.position();
+            data = MemoryUtil.memRealloc(data, data.capacity() * 2);
+            data.position(position);
+        }
+        data.putFloat(x).putFloat(y).putFloat(z).putFloat(rotation).putFloat(halfSize);
+        data.putFloat(sprite.getU0()).putFloat(sprite.getV0()).putFloat(sprite.getU1()).putFloat(sprite.getV1());
+        data.put((byte) color.r).put((byte) color.g).put((byte) color.b).put((byte) color.a);
+        data.putShort((short) (packedLight & 0xFFFF)).putShort((short) (packedLight >> 16 & 0xFFFF));
+        ++count;
+    }
+
+    /**
+     * Draws and clears the queued instances with the current texture, blend and depth state, as set by the particle render type.
+     */
+    public void draw() {
+
+        if (count == 0) {
+            return;
+        }
+        ShaderInstance shader = CoreShaders.PARTICLE_INSTANCED;
+        if (shader == null) {
+            clear();
+            return;
+        }
+        // Vanilla caches the last bound immediate buffer; make it rebind after this VAO has been bound.
+        BufferUploader.reset();
+        setup();
+
+        GlStateManager._glBindVertexArray(vao);
+        GlStateManager._glBindBuffer(GL15.GL_ARRAY_BUFFER, instanceBuffer);
+        data.flip();
+        GlStateManager._glBufferData(GL15.GL_ARRAY_BUFFER, data, GL15.GL_STREAM_DRAW);
+
+        for (int i = 0; i < 12; ++i) {
+            shader.setSampler("Sampler" + i, RenderSystem.getShaderTexture(i));
+        }
+        if (shader.MODEL_VIEW_MATRIX != null) {
+            shader.MODEL_VIEW_MATRIX.set(RenderSystem.getModelViewMatrix());
+        }
+        if (shader.PROJECTION_MATRIX != null) {
+            shader.PROJECTION_MATRIX.set(RenderSystem.getProjectionMatrix());
+        }
+        if (shader.COLOR_MODULATOR != null) {
+            shader.COLOR_MODULATOR.set(RenderSystem.getShaderColor());
+        }
+        if (shader.FOG_START != null) {
+            shader.FOG_START.set(RenderSystem.getShaderFogStart());
+        }
+        if (shader.FOG_END != null) {
+            shader.FOG_END.set(RenderSystem.getShaderFogEnd());
+        }
+        if (shader.FOG_COLOR != null) {
+            shader.FOG_COLOR.set(RenderSystem.getShaderFogColor());
+        }
+        if (shader.FOG_SHAPE != null) {
+            shader.FOG_SHAPE.set(RenderSystem.getShaderFogShape().getIndex());
+        }
+        if (shader.SCREEN_SIZE != null) {
+            Window window = Minecraft.getInstance().getWindow();
+            shader.SCREEN_SIZE.set((float) window.getWidth(), (float) window.getHeight());
+        }
+        RenderSystem.setupShaderLights(shader);
+        shader.apply();
+        GL31.glDrawArraysInstanced(GL11.GL_TRIANGLE_FAN, 0, 4, count);
+        shader.clear();
+
+        GlStateManager._glBindVertexArray(0);
+        GlStateManager._glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        clear();
+    }
+
+    public int getCapacity() {
+
+        return data.capacity() / STRIDE;
+    }
+
+    private void clear() {
+
+        data.clear();
+        count = 0;
+    }
+
+    private void setup() {
+
+        if (vao >= 0) {
+            return;
+        }
+        vao = GlStateManager._glGenVertexArrays();
+        GlStateManager._glBindVertexArray(vao);
+
+        // Same corner order as the CPU quad in SpriteParticle#render.
+        quadBuffer = GlStateManager._glGenBuffers();
+        GlStateManager._glBindBuffer(GL15.GL_ARRAY_BUFFER, quadBuffer);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, new float[]{1, 1, -1, 1, -1, -1, 1, -1}, GL15.GL_STATIC_DRAW);
+        GlStateManager._enableVertexAttribArray(0);
+        GlStateManager._vertexAttribPointer(0, 2, GL11.GL_FLOAT, false, 8, 0);
+
+        instanceBuffer = GlStateManager._glGenBuffers();
+        GlStateManager._glBindBuffer(GL15.GL_ARRAY_BUFFER, instanceBuffer);
+        instanceAttribute(1, 3, GL11.GL_FLOAT, false, 0);
+        instanceAttribute(2, 1, GL11.GL_FLOAT, false, 12);
+        instanceAttribute(3, 1, GL11.GL_FLOAT, false, 16);
+        instanceAttribute(4, 4, GL11.GL_FLOAT, false, 20);
+        instanceAttribute(5, 4, GL11.GL_UNSIGNED_BYTE, true, 36);
+        GlStateManager._enableVertexAttribArray(6);
+        GlStateManager._vertexAttribIPointer(6, 2, GL11.GL_SHORT, STRIDE, 40);
+        GL33.glVertexAttribDivisor(6, 1);
+    }
+
+    private static void instanceAttribute(int index, int size, int type, boolean normalized, long offset) {
+
+        GlStateManager._enableVertexAttribArray(index);
+        GlStateManager._vertexAttribPointer(index, size, type, normalized, STRIDE, offset);
+        GL33.glVertexAttribDivisor(index, 1);
+    }
+
+}
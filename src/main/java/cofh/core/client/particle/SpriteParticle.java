@@ -20,6 +20,9 @@ import net.minecraft.world.phys.Vec3;
  */
 public abstract class SpriteParticle extends ColorParticle {
 
+    // Scratch vector for render(); particles are only rendered on the render thread.
+    private static final Vector4f CENTER = new Vector4f();
+
     protected final SpriteSet sprites;
     protected TextureAtlasSprite sprite;
 
@@ -88,10 +91,35 @@ public abstract class SpriteParticle extends ColorParticle {
         super.setSize(size);
     }
 
+    /**
+     * Writes the same quad as {@link #render(PoseStack, MultiBufferSource, VertexConsumer, int, float, float)} as one instance. Subclasses
+     * opt in through {@link #isInstanced()}, and only if they keep this quad and use a vanilla particle sheet as their render type.
+     */
+    @Override
+    public void render(ParticleInstancer instancer, PoseStack stack, float pTicks) {
+
+        float time = this.age + pTicks - this.delay;
+        if (time < 0 || this.duration <= time) {
+            return;
+        }
+        double x = MathHelper.interpolate(this.xo, this.x, pTicks);
+        double y = MathHelper.interpolate(this.yo, this.y, pTicks);
+        double z = MathHelper.interpolate(this.zo, this.z, pTicks);
+
+        // Same transform as pushing a translation and projecting the origin in render().
+        Vector4f center = CENTER;
+        center.set((float) x, (float) y, (float) z, 1);
+        center.transform(stack.last().pose());
+
+        float rot = MathHelper.interpolate(oRoll, roll, pTicks);
+        instancer.add(center.x(), center.y(), center.z() + 0.1F, rot, size * 0.5F, sprite, c0, getLightColor(pTicks, x, y, z));
+    }
+
     @Override
     public void render(PoseStack stack, MultiBufferSource buffer, VertexConsumer consumer, int packedLight, float time, float pTicks) {
 
-        Vector4f center = new Vector4f(0, 0, 0, 1);
+        Vector4f center = CENTER;
+        center.set(0, 0, 0, 1);
         center.transform(stack.last().pose());
 
         float x = center.x();
@@ -25,6 +25,12 @@ public class BlastParticle extends SpriteParticle {
         return ParticleRenderType.PARTICLE_SHEET_OPAQUE;
     }
 
+    @Override
+    public boolean isInstanced() {
+
+        return true;
+    }
+
     @Override
     protected int getLightColor(float pTicks, double x, double y, double z) {
 
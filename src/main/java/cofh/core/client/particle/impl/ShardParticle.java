@@ -23,6 +23,9 @@ import javax.annotation.Nonnull;
 
 public class ShardParticle extends PointToPointParticle {
 
+    private static final Vector4f START = new Vector4f();
+    private static final Vector4f END = new Vector4f();
+
     //The displacement, i.e. the start point subtracted from the end point.
     protected Vector3f disp;
 
@@ -61,17 +64,19 @@ public class ShardParticle extends PointToPointParticle {
         Matrix3f norm = last.normal();
 
         // Trail
-        Vector4f start = new Vector4f(0, 0, 0, 1);
+        Vector4f start = START;
+        start.set(0, 0, 0, 1);
         start.transform(pose);
-        Vector4f end = new Vector4f(0, -Math.min(dist / size, 3.0F), 0, 1);
+        Vector4f end = END;
+        end.set(0, -Math.min(dist / size, 3.0F), 0, 1);
         end.transform(pose);
         Vec2 perp = VFXHelper.axialPerp(start, end, 1.0F);
         float w = 0.12F * size;
         float xs = perp.x * w;
         float ys = perp.y * w;
         consumer = buffer.getBuffer(RenderTypes.FLAT_TRANSLUCENT);
-        new VFXHelper.VFXNode(start.x() + xs, start.x() - xs, start.y() + ys, start.y() - ys, start.z(), w).renderStart(norm, consumer, packedLight, c1);
-        new VFXHelper.VFXNode(end.x(), end.x(), end.y(), end.y(), end.z(), w * 0.1F).renderEnd(norm, consumer, packedLight, c1);
+        VFXHelper.renderNodeStart(norm, consumer, packedLight, c1, start.x() + xs, start.x() - xs, start.y() + ys, start.y() - ys, start.z(), 0, 0, 1, 1);
+        VFXHelper.renderNodeEnd(norm, consumer, packedLight, c1, end.x(), end.x(), end.y(), end.y(), end.z(), 0, 0, 1, 1);
 
         // If different colors, end batch so the body always renders on top of the trail.
         if (!c0.sameRGB(c1)) {
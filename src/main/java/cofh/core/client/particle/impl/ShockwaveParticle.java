@@ -2,7 +2,8 @@ package cofh.core.client.particle.impl;
 
 import cofh.core.client.particle.CylindricalParticle;
 import cofh.core.client.particle.options.CylindricalParticleOptions;
-import cofh.core.util.helpers.vfx.VFXHelper;
+import cofh.core.util.helpers.vfx.ShockwaveMesh;
+import cofh.core.util.helpers.vfx.ShockwaveSurface;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 import net.minecraft.client.multiplayer.ClientLevel;
@@ -15,9 +16,14 @@ import javax.annotation.Nonnull;
 
 public class ShockwaveParticle extends CylindricalParticle {
 
+    protected final BlockPos origin;
+    protected final ShockwaveMesh mesh;
+
     private ShockwaveParticle(CylindricalParticleOptions data, ClientLevel level, double x, double y, double z, double xDir, double yDir, double zDir) {
 
         super(data, level, Math.floor(x), Math.floor(y), Math.floor(z));
+        origin = new BlockPos(this.x, this.y, this.z);
+        mesh = new ShockwaveMesh(level, origin);
     }
 
     @Override
@@ -28,10 +34,18 @@ public class ShockwaveParticle extends CylindricalParticle {
         }
     }
 
+    @Override
+    public void remove() {
+
+        super.remove();
+        mesh.release();
+        ShockwaveSurface.remove(origin);
+    }
+
     @Override
     public void render(PoseStack stack, MultiBufferSource buffer, VertexConsumer consumer, int packedLightIn, float time, float pTicks) {
 
-        VFXHelper.renderShockwave(stack, buffer, level, new BlockPos(x, y, z), time * (size * 0.5F + 5) / duration, size, height);
+        mesh.render(stack, buffer, time * (size * 0.5F + 5) / duration, size, height);
     }
 
     @Nonnull
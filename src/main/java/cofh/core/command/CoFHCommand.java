@@ -6,6 +6,7 @@ import net.minecraft.commands.CommandSourceStack;
 
 public class CoFHCommand {
 
+    public static final String CMD_COUNT = "count";
     public static final String CMD_DURATION = "duration";
     public static final String CMD_FLAG = "flag";
     public static final String CMD_PLAYER = "player";
@@ -25,10 +26,22 @@ public class CoFHCommand {
                 .then(SubCommandIgnite.register())
                 .then(SubCommandInvis.register())
                 .then(SubCommandInvuln.register())
+                .then(SubCommandNetwork.register())
                 .then(SubCommandRecharge.register())
                 .then(SubCommandRepair.register())
                 .then(SubCommandZap.register())
         );
     }
 
+    /**
+     * Client-only commands, registered on the client's own dispatcher.
+     */
+    public static void registerClient(CommandDispatcher<CommandSourceStack> dispatcher) {
+
+        dispatcher.register(LiteralArgumentBuilder.<CommandSourceStack>literal("cofh_client")
+                .then(SubCommandModelCache.register())
+                .then(SubCommandParticleBenchmark.register())
+        );
+    }
+
 }
@@ -0,0 +1,39 @@
+package cofh.core.command;
+
+import cofh.core.client.model.FluidContainerItemModel;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+/**
+ * Client-side report of the fluid container model override cache.
+ */
+public class SubCommandModelCache {
+
+    static ArgumentBuilder<CommandSourceStack, ?> register() {
+
+        return Commands.literal("model_cache")
+                .executes(context -> printStats(context.getSource()))
+                .then(Commands.literal("reset")
+                        .executes(context -> resetStats(context.getSource())));
+    }
+
+    private static int printStats(CommandSourceStack source) {
+
+        long hits = FluidContainerItemModel.getOverrideHits();
+        long misses = FluidContainerItemModel.getOverrideMisses();
+        long lookups = hits + misses;
+        String rate = lookups <= 0 ? "-" : String.format("%.1f%%", hits * 100.0D / lookups);
+        source.sendSuccess(Component.translatable("commands.cofh.model_cache.stats", hits, misses, rate), false);
+        return (int) Math.min(Integer.MAX_VALUE, lookups);
+    }
+
+    private static int resetStats(CommandSourceStack source) {
+
+        FluidContainerItemModel.resetOverrideStats();
+        source.sendSuccess(Component.translatable("commands.cofh.model_cache.reset"), false);
+        return 1;
+    }
+
+}
@@ -0,0 +1,52 @@
+package cofh.core.command;
+
+import cofh.lib.network.PacketHandler;
+import cofh.lib.network.PacketStats;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+import java.util.function.Supplier;
+
+public class SubCommandNetwork {
+
+    public static Supplier<Integer> permissionLevel = () -> 2;
+
+    static ArgumentBuilder<CommandSourceStack, ?> register() {
+
+        return Commands.literal("network")
+                .requires(source -> source.hasPermission(permissionLevel.get()))
+                .executes(context -> printStats(context.getSource()))
+                .then(Commands.literal("reset")
+                        .executes(context -> resetStats(context.getSource())));
+    }
+
+    private static int printStats(CommandSourceStack source) {
+
+        int types = 0;
+        for (PacketHandler handler : PacketHandler.getHandlers()) {
+            source.sendSuccess(Component.translatable("commands.cofh.network.channel", handler.getChannelName().toString(), handler.getCollapsedPackets(), handler.getQueuedPackets()), false);
+            for (int id = 1; id < handler.getPacketIdLimit(); ++id) {
+                // Server side only; client-side counters live in the client's JVM.
+                PacketStats stats = handler.getStats(id, false);
+                if (stats == null || stats.getCount() <= 0) {
+                    continue;
+                }
+                source.sendSuccess(Component.translatable("commands.cofh.network.packet", id, stats.getName(), stats.getCount(), stats.getBytes(), stats.getDecodeNanos() / 1000, stats.getHandleNanos() / 1000), false);
+                ++types;
+            }
+        }
+        return types;
+    }
+
+    private static int resetStats(CommandSourceStack source) {
+
+        for (PacketHandler handler : PacketHandler.getHandlers()) {
+            handler.resetStats();
+        }
+        source.sendSuccess(Component.translatable("commands.cofh.network.reset"), true);
+        return 1;
+    }
+
+}
@@ -0,0 +1,105 @@
+package cofh.core.command;
+
+import cofh.core.client.particle.ParticleInstancer;
+import cofh.core.client.particle.options.ColorParticleOptions;
+import cofh.core.event.CoreClientEvents;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.player.LocalPlayer;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+import net.minecraft.util.RandomSource;
+
+import static cofh.core.command.CoFHCommand.CMD_COUNT;
+import static cofh.core.init.CoreParticles.BLAST;
+
+/**
+ * Client-side stress scene for the deferred particle pass: spawns blast particles around the player and reports frame times once they are
+ * on screen. Run it with instanced particles on and off to compare the two paths.
+ */
+public class SubCommandParticleBenchmark {
+
+    private static final int DEFAULT_COUNT = 5000;
+    private static final float DURATION = 400.0F;
+    private static final float RADIUS = 12.0F;
+
+    private static final int WARMUP_FRAMES = 20;
+    private static final int SAMPLE_FRAMES = 120;
+
+    private static int frames = -1;
+    private static long lastNanos;
+    private static long totalNanos;
+    private static long peakNanos;
+
+    static ArgumentBuilder<CommandSourceStack, ?> register() {
+
+        return Commands.literal("particle_benchmark")
+                .executes(context -> start(context.getSource(), DEFAULT_COUNT))
+                .then(Commands.argument(CMD_COUNT, IntegerArgumentType.integer(1, 16384))
+                        .executes(context -> start(context.getSource(), IntegerArgumentType.getInteger(context, CMD_COUNT))));
+    }
+
+    private static int start(CommandSourceStack source, int count) {
+
+        Minecraft minecraft = Minecraft.getInstance();
+        LocalPlayer player = minecraft.player;
+        if (player == null) {
+            return 0;
+        }
+        if (frames >= 0) {
+            source.sendFailure(Component.translatable("commands.cofh.particle_benchmark.running"));
+            return 0;
+        }
+        RandomSource random = player.getRandom();
+        ColorParticleOptions options = new ColorParticleOptions(BLAST.get(), 1.0F, DURATION, 0.0F, 0xFFC080FF);
+        for (int i = 0; i < count; ++i) {
+            // Bypasses the particle setting so both paths always see the full count.
+            minecraft.particleEngine.createParticle(options,
+                    player.getX() + (random.nextFloat() * 2 - 1) * RADIUS,
+                    player.getEyeY() + (random.nextFloat() * 2 - 1) * RADIUS * 0.5F,
+                    player.getZ() + (random.nextFloat() * 2 - 1) * RADIUS,
+                    0, 0, 0);
+        }
+        frames = 0;
+        totalNanos = 0;
+        peakNanos = 0;
+        source.sendSuccess(Component.translatable("commands.cofh.particle_benchmark.start", count, SAMPLE_FRAMES), false);
+        return count;
+    }
+
+    /**
+     * Called at the start of every render frame.
+     */
+    public static void onRenderFrame() {
+
+        if (frames < 0) {
+            return;
+        }
+        LocalPlayer player = Minecraft.getInstance().player;
+        if (player == null) {
+            frames = -1;
+            return;
+        }
+        // Wait until the particles have been ticked into the engine and reach the deferred pass.
+        if (frames == 0 && CoreClientEvents.PARTICLE_BATCH.getDeferredLastFrame() == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (frames > WARMUP_FRAMES) {
+            long frame = now - lastNanos;
+            totalNanos += frame;
+            peakNanos = Math.max(peakNanos, frame);
+        }
+        lastNanos = now;
+        if (frames++ == WARMUP_FRAMES + SAMPLE_FRAMES) {
+            frames = -1;
+            String path = ParticleInstancer.isEnabled() ? "instanced" : "vertex";
+            String average = String.format("%.2f", totalNanos / 1.0E6D / SAMPLE_FRAMES);
+            String peak = String.format("%.2f", peakNanos / 1.0E6D);
+            player.displayClientMessage(Component.translatable("commands.cofh.particle_benchmark.result", path, CoreClientEvents.PARTICLE_BATCH.getDeferredLastFrame(), average, peak, SAMPLE_FRAMES), false);
+        }
+    }
+
+}
@@ -43,6 +43,14 @@ public class CoreClientConfig implements IBaseConfig {
                 .define("Show 'Hold Shift for Details' Message", holdShiftForDetails);
 
         builder.pop();
+
+        builder.push("Particles");
+
+        enableParticleInstancing = builder
+                .comment("If TRUE, simple CoFH sprite particles will be drawn with a single instanced draw call per batch instead of being built vertex by vertex. Requires OpenGL 3.3; other hardware always uses the default path.")
+                .define("Enable Instanced Particles", enableParticleInstancing);
+
+        builder.pop();
     }
 
     public static Supplier<Boolean> enableEnchantmentDescriptions = TRUE;
@@ -53,4 +61,6 @@ public class CoreClientConfig implements IBaseConfig {
     public static Supplier<Boolean> alwaysShowDetails = FALSE;
     public static Supplier<Boolean> holdShiftForDetails = TRUE;
 
+    public static Supplier<Boolean> enableParticleInstancing = FALSE;
+
 }
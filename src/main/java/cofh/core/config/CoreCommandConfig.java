@@ -22,6 +22,9 @@ public class CoreCommandConfig implements IBaseConfig {
         SubCommandIgnite.permissionLevel = builder
                 .comment("The required permission level for the '/cofh ignite' command.")
                 .defineInRange("Ignite Permission Level", SubCommandIgnite.permissionLevel, 0, 4);
+        SubCommandNetwork.permissionLevel = builder
+                .comment("The required permission level for the '/cofh network' command.")
+                .defineInRange("Network Permission Level", SubCommandNetwork.permissionLevel, 0, 4);
         SubCommandRepair.permissionLevel = builder
                 .comment("The required permission level for the '/cofh repair' command.")
                 .defineInRange("Repair Permission Level", SubCommandRepair.permissionLevel, 0, 4);
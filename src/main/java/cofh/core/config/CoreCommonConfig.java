@@ -5,6 +5,7 @@ import net.minecraftforge.common.ForgeConfigSpec;
 import java.util.function.Supplier;
 
 import static cofh.lib.util.Constants.FALSE;
+import static cofh.lib.util.Constants.TRUE;
 
 public class CoreCommonConfig implements IBaseConfig {
 
@@ -17,6 +18,23 @@ public class CoreCommonConfig implements IBaseConfig {
                 .comment("If TRUE, dismantled blocks will be placed in the dismantling player's inventory if possible.")
                 .define("Return Dismantle Drops", returnDismantleDrops);
 
+        builder.push("Area Effect");
+
+        enableBatchedAreaHarvest = builder
+                .comment("If TRUE, area effect tools harvest their whole area as one batch, merging identical drops into as few item entities as possible. Drops then appear at the origin block instead of where each block was broken.")
+                .define("Batched Area Harvest", enableBatchedAreaHarvest);
+        enableDeferredBlockChanges = builder
+                .comment("If TRUE, large area effects (Signal/Glow Air, surface freezing) queue their block changes and apply them over several ticks. Anything still queued is applied when the server stops.")
+                .define("Deferred Block Changes", enableDeferredBlockChanges);
+        blockChangesPerTick = builder
+                .comment("This option sets the maximum number of deferred block changes applied per level, per tick.")
+                .defineInRange("Deferred Block Changes Per Tick", blockChangesPerTick, 1, 65536);
+        blockChangeTimeBudget = builder
+                .comment("This option sets the maximum time (in microseconds) spent applying deferred block changes per level, per tick. Set to 0 to disable the time limit.")
+                .defineInRange("Deferred Block Changes Time Budget", blockChangeTimeBudget, 0, 50000);
+
+        builder.pop();
+
         builder.push("Fishing");
 
         enableFishingExhaustion = builder
@@ -40,6 +58,14 @@ public class CoreCommonConfig implements IBaseConfig {
         builder.pop();
 
         builder.pop();
+
+        builder.push("Network");
+
+        enablePacketCoalescing = builder
+                .comment("If TRUE, CoFH packets sent to a player during a server tick are queued and sent as one bundle at the end of the tick, and repeated tile updates within the tick are collapsed to the latest.")
+                .define("Packet Coalescing", enablePacketCoalescing);
+
+        builder.pop();
     }
 
     public static boolean returnDismantleDrops() {
@@ -47,6 +73,31 @@ public class CoreCommonConfig implements IBaseConfig {
         return returnDismantleDrops.get();
     }
 
+    public static boolean enableBatchedAreaHarvest() {
+
+        return enableBatchedAreaHarvest.get();
+    }
+
+    public static boolean enableDeferredBlockChanges() {
+
+        return enableDeferredBlockChanges.get();
+    }
+
+    public static int blockChangesPerTick() {
+
+        return blockChangesPerTick.get();
+    }
+
+    public static int blockChangeTimeBudget() {
+
+        return blockChangeTimeBudget.get();
+    }
+
+    public static boolean enablePacketCoalescing() {
+
+        return enablePacketCoalescing.get();
+    }
+
     public static boolean enableFishingExhaustion() {
 
         return enableFishingExhaustion.get();
@@ -69,6 +120,13 @@ public class CoreCommonConfig implements IBaseConfig {
 
     private static Supplier<Boolean> returnDismantleDrops = FALSE;
 
+    private static Supplier<Boolean> enableBatchedAreaHarvest = FALSE;
+    private static Supplier<Boolean> enableDeferredBlockChanges = FALSE;
+    private static Supplier<Integer> blockChangesPerTick = () -> 1024;
+    private static Supplier<Integer> blockChangeTimeBudget = () -> 2000;
+
+    private static Supplier<Boolean> enablePacketCoalescing = FALSE;
+
     private static Supplier<Boolean> enableFishingExhaustion = FALSE;
     private static Supplier<Double> amountFishingExhaustion = () -> 0.125;
 
@@ -3,7 +3,8 @@ package cofh.core.entity;
 import cofh.core.client.particle.options.CylindricalParticleOptions;
 import cofh.core.init.CoreEntities;
 import cofh.core.util.AreaUtils;
-import cofh.core.util.helpers.vfx.VFXHelper;
+import cofh.core.util.helpers.vfx.ShockwaveOffsets;
+import cofh.core.util.helpers.vfx.ShockwaveSurface;
 import cofh.lib.entity.AbstractAoESpell;
 import cofh.lib.util.helpers.MathHelper;
 import net.minecraft.core.BlockPos;
@@ -14,7 +15,6 @@ import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
 
 import static cofh.core.init.CoreMobEffects.SUNDERED;
@@ -55,22 +55,15 @@ public class Shockwave extends AbstractAoESpell {
     public void activeTick() {
 
         if (level.isClientSide()) {
-            BlockPos center = this.blockPosition();
-            VFXHelper.SHOCKWAVE_OFFSETS
-                    .subMap(Math.min(tickCount * speed, radius), Math.min((tickCount + 1) * speed, radius))
-                    .values().forEach(offs -> offs.forEach(off -> {
-                        if (level.getRandom().nextBoolean()) {
-                            for (int y = 1; y >= -1; --y) {
-                                BlockPos pos = center.offset(off.apply(y));
-                                BlockState state = level.getBlockState(pos);
-                                if (!state.isAir() && state.isRedstoneConductor(level, pos) && state.isCollisionShapeFullBlock(level, pos) &&
-                                        !state.hasBlockEntity() && !level.getBlockState(pos.above()).isCollisionShapeFullBlock(level, pos.above())) {
-                                    level.addDestroyBlockEffect(pos, state);
-                                    return;
-                                }
-                            }
-                        }
-                    }));
+            ShockwaveOffsets offsets = ShockwaveOffsets.get(radius);
+            ShockwaveSurface surface = ShockwaveSurface.get(level, this.blockPosition());
+            for (int ring = offsets.firstRing(Math.min(tickCount * speed, radius)), end = offsets.firstRing(Math.min((tickCount + 1) * speed, radius)); ring < end; ++ring) {
+                for (int i = offsets.ringStart(ring); i < offsets.ringEnd(ring); ++i) {
+                    if (level.getRandom().nextBoolean() && surface.resolve(offsets, i)) {
+                        level.addDestroyBlockEffect(surface.pos().immutable(), surface.state(i));
+                    }
+                }
+            }
         } else {
             attack();
         }
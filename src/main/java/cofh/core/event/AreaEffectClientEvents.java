@@ -1,6 +1,6 @@
 package cofh.core.event;
 
-import cofh.core.capability.templates.AreaEffectItemWrapper;
+import cofh.core.util.AreaEffectCache;
 import com.google.common.collect.ImmutableList;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.SheetedDecalTextureGenerator;
@@ -26,7 +26,6 @@ import net.minecraftforge.fml.common.Mod;
 
 import java.util.List;
 
-import static cofh.core.capability.CapabilityAreaEffect.AREA_EFFECT_ITEM_CAPABILITY;
 import static cofh.core.util.helpers.AreaEffectHelper.validAreaEffectItem;
 import static cofh.core.util.helpers.AreaEffectHelper.validAreaEffectMiningItem;
 import static cofh.lib.util.constants.ModIds.ID_COFH_CORE;
@@ -53,7 +52,7 @@ public class AreaEffectClientEvents {
             return;
         }
         Camera camera = Minecraft.getInstance().gameRenderer.getMainCamera();
-        ImmutableList<BlockPos> areaBlocks = stack.getCapability(AREA_EFFECT_ITEM_CAPABILITY).orElse(new AreaEffectItemWrapper(stack)).getAreaEffectBlocks(event.getTarget().getBlockPos(), player);
+        ImmutableList<BlockPos> areaBlocks = AreaEffectCache.getAreaEffectBlocks(stack, event.getTarget().getBlockPos(), player);
 
         LevelRenderer levelRenderer = event.getLevelRenderer();
         PoseStack matrix = event.getPoseStack();
@@ -1,32 +1,38 @@
 package cofh.core.event;
 
-import cofh.core.capability.templates.AreaEffectItemWrapper;
+import cofh.core.config.CoreCommonConfig;
+import cofh.core.util.AreaEffectCache;
 import cofh.lib.util.Utils;
 import com.google.common.collect.ImmutableList;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.util.Mth;
 import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.ExperienceOrb;
+import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.context.UseOnContext;
-import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.BlockHitResult;
 import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityJoinLevelEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.level.BlockEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.items.ItemHandlerHelper;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
-import static cofh.core.capability.CapabilityAreaEffect.AREA_EFFECT_ITEM_CAPABILITY;
 import static cofh.core.util.helpers.AreaEffectHelper.validAreaEffectMiningItem;
 import static cofh.lib.util.constants.ModIds.ID_COFH_CORE;
 
@@ -35,6 +41,11 @@ public class AreaEffectEvents {
 
     private static final Set<BlockPos> HARVESTED_BLOCKS = new ObjectOpenHashSet<>();
 
+    // Batched harvest state; drops and experience spawned in this level while a batch is running are captured and merged.
+    private static final List<ItemStack> BATCH_DROPS = new ArrayList<>();
+    private static ServerLevel batchLevel;
+    private static int batchXp;
+
     private AreaEffectEvents() {
 
     }
@@ -54,8 +65,14 @@ public class AreaEffectEvents {
         if (!validAreaEffectMiningItem(stack)) {
             return;
         }
-        ImmutableList<BlockPos> areaBlocks = stack.getCapability(AREA_EFFECT_ITEM_CAPABILITY).orElse(new AreaEffectItemWrapper(stack)).getAreaEffectBlocks(origin, player);
-        // TODO: Revisit if performance issues show. This is the most *proper* way to handle this, but is not particularly friendly.
+        ImmutableList<BlockPos> areaBlocks = AreaEffectCache.getAreaEffectBlocks(stack, origin, player);
+        if (areaBlocks.isEmpty()) {
+            return;
+        }
+        if (CoreCommonConfig.enableBatchedAreaHarvest()) {
+            harvestBatched(player, stack, origin, areaBlocks);
+            return;
+        }
         for (BlockPos pos : areaBlocks) {
             if (stack.isEmpty()) {
                 break;
@@ -66,6 +83,22 @@ public class AreaEffectEvents {
         }
     }
 
+    @SubscribeEvent (priority = EventPriority.LOWEST)
+    public static void handleEntityJoinLevelEvent(EntityJoinLevelEvent event) {
+
+        if (batchLevel == null || event.isCanceled() || event.getLevel() != batchLevel) {
+            return;
+        }
+        Entity entity = event.getEntity();
+        if (entity instanceof ItemEntity item) {
+            mergeDrop(item.getItem());
+            event.setCanceled(true);
+        } else if (entity instanceof ExperienceOrb orb) {
+            batchXp += orb.getValue();
+            event.setCanceled(true);
+        }
+    }
+
     @SubscribeEvent (priority = EventPriority.NORMAL)
     public static void handleBreakSpeedEvent(PlayerEvent.BreakSpeed event) {
 
@@ -79,7 +112,7 @@ public class AreaEffectEvents {
         }
 
         event.getPosition().ifPresent(pos -> {
-            ImmutableList<BlockPos> areaBlocks = stack.getCapability(AREA_EFFECT_ITEM_CAPABILITY).orElse(new AreaEffectItemWrapper(stack)).getAreaEffectBlocks(pos, player);
+            ImmutableList<BlockPos> areaBlocks = AreaEffectCache.getAreaEffectBlocks(stack, pos, player);
 
             float curHardness = event.getState().getDestroySpeed(player.level, pos);
             if (curHardness <= 0 || areaBlocks.size() <= 1) {
@@ -88,13 +121,25 @@ public class AreaEffectEvents {
             float areaMod = Mth.clamp(1.0F - 0.01F * areaBlocks.size(), 0.1F, 1.0F);
             event.setNewSpeed(event.getNewSpeed() * areaMod);
 
-            float maxHardness = getMaxHardness(player.level, areaBlocks, curHardness);
+            float maxHardness = AreaEffectCache.getMaxHardness(stack, pos, player, curHardness);
             if (maxHardness > curHardness) {
                 event.setNewSpeed(event.getNewSpeed() * curHardness / maxHardness);
             }
         });
     }
 
+    @SubscribeEvent (priority = EventPriority.LOWEST)
+    public static void handleNeighborNotifyEvent(BlockEvent.NeighborNotifyEvent event) {
+
+        AreaEffectCache.onBlockChanged(event.getLevel(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void handlePlayerLoggedOutEvent(PlayerEvent.PlayerLoggedOutEvent event) {
+
+        AreaEffectCache.invalidate(event.getEntity());
+    }
+
     @SubscribeEvent (priority = EventPriority.LOWEST)
     public static void handleTickEndEvent(TickEvent.ServerTickEvent event) {
 
@@ -181,18 +226,58 @@ public class AreaEffectEvents {
         return HARVESTED_BLOCKS.contains(pos);
     }
 
-    private static float getMaxHardness(BlockGetter world, List<BlockPos> areaBlocks, float curHardness) {
+    /**
+     * Harvests an entire area as one batch.
+     * <p>
+     * The whole area is guarded up front so nested BreakEvents return immediately. Every position still goes through
+     * {@link net.minecraft.server.level.ServerPlayerGameMode#destroyBlock(BlockPos)} so that protection mods see a BreakEvent per block,
+     * but item and experience drops are captured and merged into as few entities as possible at the origin. Block change packets
+     * are already combined per chunk section by the ChunkHolder at the end of the tick, since all changes happen within it.
+     */
+    private static void harvestBatched(ServerPlayer player, ItemStack stack, BlockPos origin, List<BlockPos> areaBlocks) {
+
+        ServerLevel level = player.getLevel();
+        HARVESTED_BLOCKS.addAll(areaBlocks);
+        batchLevel = level;
+        try {
+            for (BlockPos pos : areaBlocks) {
+                if (stack.isEmpty()) {
+                    break;
+                }
+                player.gameMode.destroyBlock(pos);
+            }
+        } finally {
+            batchLevel = null;
+            HARVESTED_BLOCKS.removeAll(areaBlocks);
+        }
+        double x = origin.getX() + 0.5D;
+        double y = origin.getY() + 0.5D;
+        double z = origin.getZ() + 0.5D;
+        for (ItemStack drop : BATCH_DROPS) {
+            ItemEntity item = new ItemEntity(level, x, y, z, drop);
+            item.setDefaultPickUpDelay();
+            level.addFreshEntity(item);
+        }
+        BATCH_DROPS.clear();
+        if (batchXp > 0) {
+            ExperienceOrb.award(level, new Vec3(x, y, z), batchXp);
+            batchXp = 0;
+        }
+    }
 
-        float maxHardness = curHardness;
-        float testHardness;
+    private static void mergeDrop(ItemStack drop) {
 
-        for (BlockPos pos : areaBlocks) {
-            testHardness = world.getBlockState(pos).getDestroySpeed(world, pos);
-            if (testHardness > maxHardness) {
-                maxHardness = testHardness;
+        for (ItemStack stack : BATCH_DROPS) {
+            if (stack.getCount() < stack.getMaxStackSize() && ItemHandlerHelper.canItemStacksStack(stack, drop)) {
+                int merged = Math.min(drop.getCount(), stack.getMaxStackSize() - stack.getCount());
+                stack.grow(merged);
+                drop.shrink(merged);
+                if (drop.isEmpty()) {
+                    return;
+                }
             }
         }
-        return maxHardness;
+        BATCH_DROPS.add(drop.copy());
     }
 
     // Used to reproduce the use context, but with the proper position as some BlockToolModifications are context-dependent.
@@ -1,15 +1,19 @@
 package cofh.core.event;
 
 import cofh.core.client.particle.CoFHParticle;
+import cofh.core.client.particle.ParticleBatch;
+import cofh.core.command.CoFHCommand;
+import cofh.core.command.SubCommandParticleBenchmark;
 import cofh.core.config.CoreClientConfig;
+import cofh.core.item.ItemTracker;
+import cofh.core.network.packet.TilePacketDelta;
+import cofh.core.util.AreaEffectCache;
+import cofh.core.util.helpers.vfx.ShockwaveSurface;
 import cofh.lib.client.renderer.entity.ITranslucentRenderer;
 import cofh.lib.util.Utils;
 import cofh.lib.util.constants.ModIds;
 import cofh.lib.util.raytracer.VoxelShapeBlockHitResult;
-import com.mojang.blaze3d.systems.RenderSystem;
-import com.mojang.blaze3d.vertex.BufferBuilder;
 import com.mojang.blaze3d.vertex.PoseStack;
-import com.mojang.blaze3d.vertex.Tesselator;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 import com.mojang.math.Matrix4f;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
@@ -19,11 +23,9 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.client.model.EntityModel;
 import net.minecraft.client.particle.ParticleRenderType;
-import net.minecraft.client.renderer.GameRenderer;
 import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
-import net.minecraft.client.renderer.texture.TextureManager;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.network.chat.Component;
@@ -44,6 +46,7 @@ import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.*;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.player.ItemTooltipEvent;
+import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
@@ -65,6 +68,11 @@ public class CoreClientEvents {
 
     public static int renderTime;
     public static float renderFrame;
+    public static final ParticleBatch PARTICLE_BATCH = new ParticleBatch();
+    /**
+     * @deprecated Use {@link #PARTICLE_BATCH}. Particles still queued here are moved into it each frame before it renders.
+     */
+    @Deprecated
     public static final Map<ParticleRenderType, Deque<CoFHParticle>> delayedRenderParticles = new Object2ObjectOpenHashMap<>();
 
     private static final Set<String> NAMESPACES = new ObjectOpenHashSet<>();
@@ -174,14 +182,38 @@ public class CoreClientEvents {
         }
     }
 
+    @SubscribeEvent
+    public static void handleLoggingOutEvent(ClientPlayerNetworkEvent.LoggingOut event) {
+
+        TilePacketDelta.clearClient();
+        ShockwaveSurface.clear();
+        ItemTracker.clear(true);
+        AreaEffectCache.clear(true);
+    }
+
+    @SubscribeEvent
+    public static void handleLevelUnloadEvent(LevelEvent.Unload event) {
+
+        if (event.getLevel().isClientSide()) {
+            AreaEffectCache.clear(true);
+        }
+    }
+
     @SubscribeEvent
     public static void renderTick(TickEvent.RenderTickEvent event) {
 
         if (event.phase == TickEvent.Phase.START) {
             renderFrame = event.renderTickTime;
+            SubCommandParticleBenchmark.onRenderFrame();
         }
     }
 
+    @SubscribeEvent
+    public static void registerClientCommands(RegisterClientCommandsEvent event) {
+
+        CoFHCommand.registerClient(event.getDispatcher());
+    }
+
     @SubscribeEvent
     public static void renderTranslucent(RenderLevelStageEvent event) {
 
@@ -192,9 +224,6 @@ public class CoreClientEvents {
         float partialTick = event.getPartialTick();
         Minecraft minecraft = Minecraft.getInstance();
         MultiBufferSource buffer = minecraft.renderBuffers().bufferSource();
-        TextureManager manager = minecraft.getTextureManager();
-        Tesselator tesselator = Tesselator.getInstance();
-        BufferBuilder consumer = tesselator.getBuilder();
         LightTexture light = minecraft.gameRenderer.lightTexture();
 
         light.turnOnLightLayer();
@@ -202,17 +231,12 @@ public class CoreClientEvents {
         stack.pushPose();
         Vec3 pos = event.getCamera().getPosition();
         stack.translate(-pos.x, -pos.y, -pos.z);
-        for (ParticleRenderType renderType : delayedRenderParticles.keySet()) {
-            RenderSystem.setShader(GameRenderer::getParticleShader);
-            RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
-            Deque<CoFHParticle> particles = delayedRenderParticles.get(renderType);
-
-            renderType.begin(consumer, manager);
+        for (Deque<CoFHParticle> particles : delayedRenderParticles.values()) {
             while (!particles.isEmpty()) {
-                particles.poll().render(stack, buffer, consumer, partialTick);
+                PARTICLE_BATCH.add(particles.poll());
             }
-            renderType.end(tesselator);
         }
+        PARTICLE_BATCH.render(stack, buffer, partialTick, pos, minecraft.getTextureManager());
         stack.popPose();
         light.turnOffLightLayer();
         ITranslucentRenderer.renderTranslucent(stack, partialTick, event.getLevelRenderer(), event.getProjectionMatrix());
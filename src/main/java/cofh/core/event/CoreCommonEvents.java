@@ -2,8 +2,17 @@ package cofh.core.event;
 
 import cofh.core.config.CoreCommonConfig;
 import cofh.core.config.CoreEnchantConfig;
+import cofh.core.network.packet.TilePacketDelta;
+import cofh.core.util.BlockExpiryTimers;
+import cofh.core.util.BlockMutationQueue;
+import cofh.core.util.helpers.FilterHelper;
 import cofh.core.util.helpers.XpHelper;
+import cofh.lib.network.ChunkWatchers;
+import cofh.lib.network.PacketHandler;
+import cofh.lib.util.SocialUtils;
 import cofh.lib.util.Utils;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.ExperienceOrb;
@@ -12,12 +21,19 @@ import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.common.util.FakePlayer;
+import net.minecraftforge.event.TagsUpdatedEvent;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.living.LivingFallEvent;
 import net.minecraftforge.event.entity.player.ItemFishedEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.PlayerXpEvent;
 import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
+import net.minecraftforge.event.level.ChunkWatchEvent;
+import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.event.level.SaplingGrowTreeEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.Event;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
@@ -146,6 +162,88 @@ public class CoreCommonEvents {
         }
     }
 
+    @SubscribeEvent (priority = EventPriority.LOWEST)
+    public static void flushPackets(TickEvent.ServerTickEvent event) {
+
+        if (event.phase == TickEvent.Phase.END) {
+            PacketHandler.flushAll();
+        }
+    }
+
+    @SubscribeEvent
+    public static void handlePlayerLoggedOutEvent(PlayerEvent.PlayerLoggedOutEvent event) {
+
+        if (event.getEntity() instanceof ServerPlayer player) {
+            TilePacketDelta.clear(player);
+            ChunkWatchers.remove(player);
+        }
+    }
+
+    @SubscribeEvent
+    public static void handleChunkWatchEvent(ChunkWatchEvent.Watch event) {
+
+        ChunkWatchers.watch(event.getLevel(), event.getPos(), event.getPlayer());
+    }
+
+    @SubscribeEvent
+    public static void handleChunkUnwatchEvent(ChunkWatchEvent.UnWatch event) {
+
+        ChunkWatchers.unwatch(event.getLevel(), event.getPos(), event.getPlayer());
+    }
+
+    @SubscribeEvent
+    public static void handleServerStoppedEvent(ServerStoppedEvent event) {
+
+        SocialUtils.clear();
+    }
+
+    @SubscribeEvent
+    public static void handleTagsUpdatedEvent(TagsUpdatedEvent event) {
+
+        FilterHelper.onTagsUpdated();
+    }
+
+    @SubscribeEvent
+    public static void levelTick(TickEvent.LevelTickEvent event) {
+
+        if (event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel level) {
+            BlockExpiryTimers.tick(level);
+            BlockMutationQueue.tick(level);
+        }
+    }
+
+    @SubscribeEvent
+    public static void chunkLoad(ChunkEvent.Load event) {
+
+        if (event.getLevel() instanceof ServerLevel level) {
+            BlockExpiryTimers.onChunkLoad(level, event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void chunkUnload(ChunkEvent.Unload event) {
+
+        if (event.getLevel() instanceof ServerLevel level) {
+            BlockExpiryTimers.onChunkUnload(level, event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public static void serverStopping(ServerStoppingEvent event) {
+
+        // Before the levels are saved, so deferred block changes are not lost.
+        BlockMutationQueue.flushAll();
+    }
+
+    @SubscribeEvent
+    public static void levelUnload(LevelEvent.Unload event) {
+
+        if (event.getLevel() instanceof ServerLevel level) {
+            BlockMutationQueue.unload(level);
+            ChunkWatchers.unload(level);
+        }
+    }
+
     // region HELPERS
     private static Map.Entry<EquipmentSlot, ItemStack> getMostDamagedItem(Player player) {
 
@@ -1,5 +1,6 @@
 package cofh.core.init;
 
+import cofh.core.client.particle.ParticleInstancer;
 import com.mojang.blaze3d.vertex.DefaultVertexFormat;
 import com.mojang.blaze3d.vertex.VertexFormat;
 import net.minecraft.client.renderer.ShaderInstance;
@@ -21,6 +22,7 @@ public class CoreShaders {
     public static ShaderInstance PARTICLE_ADDITIVE_MULTIPLY;
     public static ShaderInstance PARTICLE_ADDITIVE_SCREEN;
     public static ShaderInstance ENTITY_PIXELATE;
+    public static ShaderInstance PARTICLE_INSTANCED;
 
     @SubscribeEvent
     public static void registerShaders(final RegisterShadersEvent event) throws IOException {
@@ -29,6 +31,7 @@ public class CoreShaders {
         registerShader(event, "particle_add", DefaultVertexFormat.PARTICLE, s -> PARTICLE_ADDITIVE_MULTIPLY = s);
         registerShader(event, "particle_screen", DefaultVertexFormat.PARTICLE, s -> PARTICLE_ADDITIVE_SCREEN = s);
         registerShader(event, "pixelation", DefaultVertexFormat.NEW_ENTITY, s -> ENTITY_PIXELATE = s);
+        registerShader(event, "particle_instanced", ParticleInstancer.FORMAT, s -> PARTICLE_INSTANCED = s);
     }
 
     private static void registerShader(RegisterShadersEvent event, String id, VertexFormat format, Consumer<ShaderInstance> callback) throws IOException {
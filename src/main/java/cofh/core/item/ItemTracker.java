@@ -1,79 +1,57 @@
 package cofh.core.item;
 
-import it.unimi.dsi.fastutil.objects.Object2IntMap;
-import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
-import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import cofh.lib.util.SidedVariable;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.living.LivingEntityUseItemEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.util.thread.EffectiveSide;
 
+import javax.annotation.Nullable;
 import java.util.Map;
-import java.util.Objects;
+import java.util.WeakHashMap;
 
 import static cofh.lib.util.constants.ModIds.ID_COFH_CORE;
 import static net.minecraft.world.InteractionHand.MAIN_HAND;
 import static net.minecraft.world.InteractionHand.OFF_HAND;
 
+/**
+ * Tracks the {@link ITrackedItem} stacks held in each hand, and how long they have been used for.
+ * <p>
+ * State is kept per player and per side; players are weakly referenced and are also dropped on logout.
+ */
 @Mod.EventBusSubscriber (modid = ID_COFH_CORE)
 public class ItemTracker {
 
-    // TODO weak reference players
-    protected static Map<Hand, ItemStack> HELD = new Object2ObjectOpenHashMap<>();
-    protected static Object2IntMap<ItemStack> USING = new Object2IntOpenHashMap<>();
-
-    //protected static Object2LongMap<ItemStack> TIME = new Object2LongOpenHashMap<>();
-    static {
-        USING.defaultReturnValue(-1);
-        //TIME.defaultReturnValue(-1);
-    }
+    protected static final SidedVariable<Map<Player, HeldItems>> HELD = new SidedVariable<>(WeakHashMap::new);
 
     /**
-     * Gets the duration for which the given item has been used.
+     * Gets the duration for which the given item has been used on the calling thread's logical side, or -1 if it is not a tracked stack in
+     * use there.
+     *
+     * @deprecated Matches the stack against every player on that side; use {@link #getUsingDuration(Player, ItemStack)} when the user is known.
      */
+    @Deprecated
     public static int getUsingDuration(ItemStack stack) {
 
-        return USING.getInt(stack);
+        return getUsingDuration(HELD.get(EffectiveSide.get().isClient()), stack);
     }
 
-    ///**
-    // * Stores a time value associated with the item until it is swapped off of.
-    // */
-    //public static void recordTime(ItemStack stack, long time) {
-    //
-    //    TIME.computeLongIfPresent(stack, (key, old) -> time);
-    //}
-
-    ///**
-    // * Recalls the previously recorded time value, or -1 if not present.
-    // */
-    //public static long getRecordedTime(ItemStack stack) {
-    //
-    //    return TIME.getLong(stack);
-    //}
-
-    //@Nullable
-    //public static Pair<Player, InteractionHand> getUser(ItemStack stack) {
-    //
-    //    if (stack.getItem() instanceof ITrackedItem tracked) {
-    //        return HELD.entrySet().stream()
-    //                .filter(entry -> tracked.matches(stack, entry.getValue()))
-    //                .findFirst()
-    //                .map(entry -> {
-    //                    Hand hand = entry.getKey();
-    //                    if (hand == null) {
-    //                        return null;
-    //                    }
-    //                    return Pair.of(hand.player, hand.hand);
-    //                })
-    //                .orElse(null);
-    //    }
-    //    return null;
-    //}
+    /**
+     * Gets the duration for which the given item has been used by the player, or -1 if it is not a tracked stack in use.
+     */
+    public static int getUsingDuration(Player player, ItemStack stack) {
+
+        HeldItems held = HELD.get(player.level.isClientSide).get(player);
+        return held == null ? -1 : held.getUsing(stack);
+    }
 
     @SubscribeEvent (priority = EventPriority.LOWEST)
     public static void playerTick(TickEvent.PlayerTickEvent event) {
@@ -82,15 +60,24 @@ public class ItemTracker {
         if (event.phase != TickEvent.Phase.START) {
             return;
         }
-        updateData(player, MAIN_HAND);
-        updateData(player, OFF_HAND);
+        Map<Player, HeldItems> map = HELD.get(player.level.isClientSide);
+        HeldItems held = map.get(player);
+        if (held == null) {
+            if (!(player.getMainHandItem().getItem() instanceof ITrackedItem) && !(player.getOffhandItem().getItem() instanceof ITrackedItem)) {
+                return;
+            }
+            held = new HeldItems();
+            map.put(player, held);
+        }
+        updateData(player, held, MAIN_HAND);
+        updateData(player, held, OFF_HAND);
     }
 
     @SubscribeEvent (priority = EventPriority.LOWEST)
     public static void onStartUsing(LivingEntityUseItemEvent.Start event) {
 
         if (!event.isCanceled()) {
-            updateUsing(event.getItem(), event.getDuration());
+            updateUsing(event.getEntity(), event.getItem(), event.getItem().getUseDuration() - event.getDuration());
         }
     }
 
@@ -98,78 +85,130 @@ public class ItemTracker {
     public static void onTickUsing(LivingEntityUseItemEvent.Tick event) {
 
         if (!event.isCanceled()) {
-            updateUsing(event.getItem(), event.getDuration());
+            updateUsing(event.getEntity(), event.getItem(), event.getItem().getUseDuration() - event.getDuration());
         }
     }
 
     @SubscribeEvent
     public static void onEndUsing(LivingEntityUseItemEvent.Stop event) {
 
-        stopUsing(event.getItem());
+        updateUsing(event.getEntity(), event.getItem(), -1);
     }
 
     @SubscribeEvent
     public static void onFinishUsing(LivingEntityUseItemEvent.Finish event) {
 
-        stopUsing(event.getItem());
+        updateUsing(event.getEntity(), event.getItem(), -1);
+    }
+
+    @SubscribeEvent
+    public static void onLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+
+        if (event.getEntity() instanceof ServerPlayer player) {
+            HELD.get(false).remove(player);
+        }
+    }
+
+    public static void clear(boolean isClient) {
+
+        HELD.get(isClient).clear();
     }
 
     // region HELPERS
-    protected static void updateData(Player player, InteractionHand hand) {
+    protected static int getUsingDuration(Map<Player, HeldItems> map, ItemStack stack) {
+
+        for (HeldItems held : map.values()) {
+            int duration = held.getUsing(stack);
+            if (duration >= 0) {
+                return duration;
+            }
+        }
+        return -1;
+    }
+
+    protected static void updateData(Player player, HeldItems held, InteractionHand hand) {
 
-        Hand key = new Hand(player, hand);
-        ItemStack previous = HELD.remove(key);
-        int duration = USING.removeInt(previous);
-        //long time = TIME.removeLong(previous);
+        ItemStack previous = held.getStack(hand);
+        int duration = held.getUsing(hand);
         ItemStack current = player.getItemInHand(hand);
         if (previous != null && previous.getItem() instanceof ITrackedItem item) {
             if (item.matches(previous, current)) {
-                HELD.put(key, current);
-                USING.put(current, duration);
-                //TIME.put(current, time);
+                held.set(hand, current, duration);
                 return;
             }
             item.onSwapFrom(player, hand, previous, current, duration);
         }
         if (current.getItem() instanceof ITrackedItem item) {
-            HELD.put(key, current);
-            USING.put(current, duration);
-            //TIME.put(current, time);
+            held.set(hand, current, duration);
             item.onSwapTo(player, hand, previous, current);
+        } else {
+            held.set(hand, null, -1);
         }
     }
 
-    protected static void updateUsing(ItemStack stack, int duration) {
+    protected static void updateUsing(LivingEntity entity, ItemStack stack, int duration) {
 
-        USING.computeIntIfPresent(stack, (key, old) -> stack.getUseDuration() - duration);
+        if (entity instanceof Player player) {
+            HeldItems held = HELD.get(player.level.isClientSide).get(player);
+            if (held != null) {
+                held.setUsing(stack, duration);
+            }
+        }
     }
+    // endregion
 
-    protected static void stopUsing(ItemStack stack) {
+    // region HELD ITEMS
+    protected static class HeldItems {
 
-        USING.computeIntIfPresent(stack, (key, old) -> -1);
-    }
-    // endregion
+        @Nullable
+        ItemStack main;
+        int mainUsing = -1;
+        @Nullable
+        ItemStack off;
+        int offUsing = -1;
 
-    protected record Hand(Player player, InteractionHand hand) {
+        @Nullable
+        ItemStack getStack(InteractionHand hand) {
+
+            return hand == MAIN_HAND ? main : off;
+        }
 
-        @Override
-        public boolean equals(Object o) {
+        int getUsing(InteractionHand hand) {
 
-            if (this == o) {
-                return true;
+            return hand == MAIN_HAND ? mainUsing : offUsing;
+        }
+
+        /**
+         * Stacks are compared by identity, as the tracked stack is the live stack in the player's hand.
+         */
+        int getUsing(ItemStack stack) {
+
+            if (stack == main) {
+                return mainUsing;
             }
-            if (o instanceof Hand other) {
-                return player.equals(other.player) && player.isLocalPlayer() == other.player.isLocalPlayer() && hand.equals(other.hand);
+            return stack == off ? offUsing : -1;
+        }
+
+        void set(InteractionHand hand, @Nullable ItemStack stack, int using) {
+
+            if (hand == MAIN_HAND) {
+                main = stack;
+                mainUsing = using;
+            } else {
+                off = stack;
+                offUsing = using;
             }
-            return false;
         }
 
-        @Override
-        public int hashCode() {
+        void setUsing(ItemStack stack, int using) {
 
-            return Objects.hash(player.isLocalPlayer(), player, hand);
+            if (stack == main) {
+                mainUsing = using;
+            } else if (stack == off) {
+                offUsing = using;
+            }
         }
 
     }
-
+    // endregion
 }
@@ -1,13 +1,19 @@
 package cofh.core.mixin;
 
+import cofh.core.util.AreaEffectCache;
 import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.math.Matrix4f;
 import net.minecraft.client.Camera;
+import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.renderer.GameRenderer;
 import net.minecraft.client.renderer.LevelRenderer;
 import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.state.BlockState;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -20,6 +26,9 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 @Mixin (LevelRenderer.class)
 public abstract class LevelRendererMixin {
 
+    @Shadow
+    private ClientLevel level;
+
     @Inject (
             method = "renderLevel",
             at = @At (
@@ -33,4 +42,13 @@ public abstract class LevelRendererMixin {
         GlStateManager._depthMask(false);
     }
 
+    // Forge fires no event for client-side block changes; this keeps the client area effect highlight current.
+    @Inject (method = "blockChanged", at = @At ("HEAD"))
+    private void onBlockChanged(BlockGetter getter, BlockPos pos, BlockState oldState, BlockState newState, int flags, CallbackInfo ci) {
+
+        if (level != null) {
+            AreaEffectCache.onBlockChanged(level, pos);
+        }
+    }
+
 }
@@ -32,6 +32,7 @@ public class PacketIDs {
     public static final int PACKET_SIDE_CONFIG = 36;
     public static final int PACKET_STORAGE_CLEAR = 37;
     public static final int PACKET_CLAIM_XP = 38;
+    public static final int PACKET_TILE_RESYNC = 39;
 
     public static final int PACKET_ITEM_MODE_CHANGE = 64;
     public static final int PACKET_ITEM_LEFT_CLICK = 65;
@@ -0,0 +1,249 @@
+package cofh.core.network.packet;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Delta encoding for tile state and GUI payloads.
+ * <p>
+ * The server remembers the last payload it sent to each player for each tile; the client remembers the last payload it received for each
+ * position. Subsequent sends only carry the 8-byte blocks which differ from that baseline (or nothing at all if the payload is unchanged),
+ * and the client rebuilds the full payload before handing it to the tile. Payloads arrive in order over a single connection, so the last
+ * payload sent is the client's baseline. A checksum of the baseline guards against the two sides diverging (e.g. after a dimension
+ * change); on mismatch the client requests a resync and the server sends a full payload.
+ */
+public final class TilePacketDelta {
+
+    public static final int STATE = 0;
+    public static final int GUI = 1;
+    private static final int CHANNELS = 2;
+
+    public static final byte MODE_FULL = 0;
+    public static final byte MODE_BASELINE = 1;
+    public static final byte MODE_DELTA = 2;
+
+    private static final int BLOCK_SHIFT = 3;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    // Server: player -> channel -> tile -> last payload sent. Players which were sent the same payload share the array.
+    private static final Map<ServerPlayer, Map<Object, byte[]>[]> SENT = new WeakHashMap<>();
+
+    // Client: channel -> position -> last payload received, for the current client level only.
+    @SuppressWarnings ("unchecked")
+    private static final Long2ObjectOpenHashMap<byte[]>[] RECEIVED = new Long2ObjectOpenHashMap[]{new Long2ObjectOpenHashMap<>(), new Long2ObjectOpenHashMap<>()};
+    @Nullable
+    private static Level receivedLevel;
+
+    // Metrics (server)
+    private static final long[] fullBytes = new long[CHANNELS];
+    private static final long[] sentBytes = new long[CHANNELS];
+    private static final long[] sends = new long[CHANNELS];
+    private static final long[] skipped = new long[CHANNELS];
+
+    private TilePacketDelta() {
+
+    }
+
+    // region SERVER
+    @Nullable
+    public static byte[] getBaseline(int channel, ServerPlayer player, Object tile) {
+
+        Map<Object, byte[]>[] sent = SENT.get(player);
+        return sent == null ? null : sent[channel].get(tile);
+    }
+
+    @SuppressWarnings ("unchecked")
+    public static void setBaseline(int channel, ServerPlayer player, Object tile, byte[] payload) {
+
+        SENT.computeIfAbsent(player, p -> new Map[]{new WeakHashMap<>(), new WeakHashMap<>()})[channel].put(tile, payload);
+    }
+
+    public static void clearBaseline(int channel, ServerPlayer player, Object tile) {
+
+        Map<Object, byte[]>[] sent = SENT.get(player);
+        if (sent != null) {
+            sent[channel].remove(tile);
+        }
+    }
+
+    public static void clear(ServerPlayer player) {
+
+        SENT.remove(player);
+    }
+
+    /**
+     * Returns TRUE (and records the skip) if the player already has exactly this payload.
+     */
+    public static boolean isUnchanged(int channel, @Nullable byte[] baseline, byte[] payload) {
+
+        if (baseline != null && Arrays.equals(baseline, payload)) {
+            ++skipped[channel];
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes the mode byte and body for the given baseline into the buffer.
+     *
+     * @return The number of bytes written.
+     */
+    public static int encode(@Nullable byte[] baseline, byte[] payload, FriendlyByteBuf out) {
+
+        int start = out.writerIndex();
+        if (baseline == null || !writeDelta(baseline, payload, out)) {
+            out.writerIndex(start);
+            out.writeByte(MODE_BASELINE);
+            out.writeBytes(payload);
+        }
+        return out.writerIndex() - start;
+    }
+
+    /**
+     * Records that an encoded body was sent to one player.
+     */
+    public static void onSent(int channel, int bodyBytes, int payloadBytes) {
+
+        ++sends[channel];
+        sentBytes[channel] += bodyBytes;
+        fullBytes[channel] += payloadBytes;
+    }
+
+    private static boolean writeDelta(byte[] baseline, byte[] payload, FriendlyByteBuf out) {
+
+        int blocks = (payload.length + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        byte[] mask = new byte[(blocks + 7) >> 3];
+        int changedBytes = 0;
+        for (int b = 0; b < blocks; ++b) {
+            int from = b << BLOCK_SHIFT;
+            int to = Math.min(from + BLOCK_SIZE, payload.length);
+            if (to > baseline.length || !Arrays.equals(payload, from, to, baseline, from, to)) {
+                mask[b >> 3] |= 1 << (b & 7);
+                changedBytes += to - from;
+            }
+        }
+        // Mode, length, checksum and mask; not worth it if that is no smaller than the payload itself.
+        if (1 + 5 + 4 + mask.length + changedBytes >= 1 + payload.length) {
+            return false;
+        }
+        out.writeByte(MODE_DELTA);
+        out.writeVarInt(payload.length);
+        out.writeInt(checksum(baseline));
+        out.writeBytes(mask);
+        for (int b = 0; b < blocks; ++b) {
+            if ((mask[b >> 3] & (1 << (b & 7))) != 0) {
+                int from = b << BLOCK_SHIFT;
+                out.writeBytes(payload, from, Math.min(BLOCK_SIZE, payload.length - from));
+            }
+        }
+        return true;
+    }
+    // endregion
+
+    // region CLIENT
+
+    /**
+     * Rebuilds the full payload from a received body and stores it as the new baseline.
+     *
+     * @return The full payload, or null if the body is a delta against a baseline this client does not have.
+     */
+    @Nullable
+    public static byte[] receive(int channel, Level level, BlockPos pos, byte mode, FriendlyByteBuf in) {
+
+        if (level != receivedLevel) {
+            for (Long2ObjectOpenHashMap<byte[]> received : RECEIVED) {
+                received.clear();
+            }
+            receivedLevel = level;
+        }
+        long key = pos.asLong();
+        byte[] payload;
+        if (mode == MODE_DELTA) {
+            byte[] baseline = RECEIVED[channel].get(key);
+            int length = in.readVarInt();
+            int check = in.readInt();
+            if (baseline == null || checksum(baseline) != check) {
+                RECEIVED[channel].remove(key);
+                return null;
+            }
+            payload = Arrays.copyOf(baseline, length);
+            int blocks = (length + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+            byte[] mask = new byte[(blocks + 7) >> 3];
+            in.readBytes(mask);
+            for (int b = 0; b < blocks; ++b) {
+                if ((mask[b >> 3] & (1 << (b & 7))) != 0) {
+                    int from = b << BLOCK_SHIFT;
+                    in.readBytes(payload, from, Math.min(BLOCK_SIZE, length - from));
+                }
+            }
+        } else {
+            payload = new byte[in.readableBytes()];
+            in.readBytes(payload);
+        }
+        RECEIVED[channel].put(key, payload);
+        return payload;
+    }
+
+    public static void clearClient() {
+
+        for (Long2ObjectOpenHashMap<byte[]> received : RECEIVED) {
+            received.clear();
+        }
+        receivedLevel = null;
+    }
+    // endregion
+
+    // region METRICS
+
+    /**
+     * Bytes which would have been sent without delta encoding (full payload per send).
+     */
+    public static long getFullBytes(int channel) {
+
+        return fullBytes[channel];
+    }
+
+    /**
+     * Bytes actually encoded (mode byte and body).
+     */
+    public static long getSentBytes(int channel) {
+
+        return sentBytes[channel];
+    }
+
+    public static long getSends(int channel) {
+
+        return sends[channel];
+    }
+
+    public static long getSkipped(int channel) {
+
+        return skipped[channel];
+    }
+
+    public static void resetMetrics() {
+
+        Arrays.fill(fullBytes, 0);
+        Arrays.fill(sentBytes, 0);
+        Arrays.fill(sends, 0);
+        Arrays.fill(skipped, 0);
+    }
+    // endregion
+
+    private static int checksum(byte[] data) {
+
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+}
@@ -1,6 +1,8 @@
 package cofh.core.network.packet.client;
 
 import cofh.core.CoFHCore;
+import cofh.core.network.packet.TilePacketDelta;
+import cofh.core.network.packet.server.TileResyncPacket;
 import cofh.core.util.ProxyUtils;
 import cofh.lib.api.block.entity.IPacketHandlerTile;
 import cofh.lib.network.packet.IPacketClient;
@@ -18,6 +20,7 @@ import static cofh.core.network.packet.PacketIDs.PACKET_GUI;
 public class TileGuiPacket extends PacketBase implements IPacketClient {
 
     protected BlockPos pos;
+    protected byte mode = TilePacketDelta.MODE_FULL;
     protected FriendlyByteBuf buffer;
 
     public TileGuiPacket() {
@@ -35,14 +38,30 @@ public class TileGuiPacket extends PacketBase implements IPacketClient {
         }
         BlockEntity tile = world.getBlockEntity(pos);
         if (tile instanceof IPacketHandlerTile handlerTile) {
-            handlerTile.handleGuiPacket(buffer);
+            FriendlyByteBuf payload = buffer;
+            if (mode != TilePacketDelta.MODE_FULL) {
+                byte[] bytes = TilePacketDelta.receive(TilePacketDelta.GUI, world, pos, mode, buffer);
+                if (bytes == null) {
+                    TileResyncPacket.sendToServer(pos, TilePacketDelta.GUI);
+                    return;
+                }
+                payload = new FriendlyByteBuf(Unpooled.wrappedBuffer(bytes));
+            }
+            handlerTile.handleGuiPacket(payload);
         }
     }
 
+    @Override
+    public long coalesceKey() {
+
+        return mode == TilePacketDelta.MODE_FULL ? pos.asLong() : NO_COALESCE;
+    }
+
     @Override
     public void write(FriendlyByteBuf buf) {
 
         buf.writeBlockPos(pos);
+        buf.writeByte(mode);
         buf.writeBytes(buffer);
     }
 
@@ -51,6 +70,7 @@ public class TileGuiPacket extends PacketBase implements IPacketClient {
 
         buffer = buf;
         pos = buffer.readBlockPos();
+        mode = buffer.readByte();
     }
 
     public static void sendToClient(IPacketHandlerTile tile, ServerPlayer player) {
@@ -60,8 +80,26 @@ public class TileGuiPacket extends PacketBase implements IPacketClient {
         }
         TileGuiPacket packet = new TileGuiPacket();
         packet.pos = tile.pos();
-        packet.buffer = tile.getGuiPacket(new FriendlyByteBuf(Unpooled.buffer()));
-        packet.sendToPlayer(player);
+        FriendlyByteBuf buffer = pooledBuffer();
+        try {
+            packet.buffer = tile.getGuiPacket(buffer);
+            if (tile.useDeltaPackets()) {
+                byte[] payload = new byte[packet.buffer.readableBytes()];
+                packet.buffer.readBytes(payload);
+                byte[] baseline = TilePacketDelta.getBaseline(TilePacketDelta.GUI, player, tile);
+                if (TilePacketDelta.isUnchanged(TilePacketDelta.GUI, baseline, payload)) {
+                    return;
+                }
+                packet.buffer.clear();
+                int size = TilePacketDelta.encode(baseline, payload, packet.buffer);
+                packet.mode = packet.buffer.readByte();
+                TilePacketDelta.setBaseline(TilePacketDelta.GUI, player, tile, payload);
+                TilePacketDelta.onSent(TilePacketDelta.GUI, size, payload.length);
+            }
+            packet.sendToPlayer(player);
+        } finally {
+            buffer.release();
+        }
     }
 
 }
@@ -6,7 +6,6 @@ import cofh.lib.api.block.entity.IPacketHandlerTile;
 import cofh.lib.network.packet.IPacketClient;
 import cofh.lib.network.packet.PacketBase;
 import cofh.lib.util.Utils;
-import io.netty.buffer.Unpooled;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.level.Level;
@@ -42,6 +41,12 @@ public class TileRenderPacket extends PacketBase implements IPacketClient {
         }
     }
 
+    @Override
+    public long coalesceKey() {
+
+        return pos.asLong();
+    }
+
     @Override
     public void write(FriendlyByteBuf buf) {
 
@@ -63,8 +68,13 @@ public class TileRenderPacket extends PacketBase implements IPacketClient {
         }
         TileRenderPacket packet = new TileRenderPacket();
         packet.pos = tile.pos();
-        packet.buffer = tile.getRenderPacket(new FriendlyByteBuf(Unpooled.buffer()));
-        packet.sendToAllAround(packet.pos, NETWORK_UPDATE_DISTANCE, tile.world().dimension());
+        FriendlyByteBuf buffer = pooledBuffer();
+        try {
+            packet.buffer = tile.getRenderPacket(buffer);
+            packet.sendToAllAround(packet.pos, NETWORK_UPDATE_DISTANCE, tile.world().dimension());
+        } finally {
+            buffer.release();
+        }
     }
 
 }
@@ -1,6 +1,8 @@
 package cofh.core.network.packet.client;
 
 import cofh.core.CoFHCore;
+import cofh.core.network.packet.TilePacketDelta;
+import cofh.core.network.packet.server.TileResyncPacket;
 import cofh.core.util.ProxyUtils;
 import cofh.lib.api.block.entity.IPacketHandlerTile;
 import cofh.lib.network.packet.IPacketClient;
@@ -9,9 +11,16 @@ import cofh.lib.util.Utils;
 import io.netty.buffer.Unpooled;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.network.NetworkDirection;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
 
 import static cofh.core.network.packet.PacketIDs.PACKET_STATE;
 import static cofh.lib.util.Constants.NETWORK_UPDATE_DISTANCE;
@@ -19,6 +28,7 @@ import static cofh.lib.util.Constants.NETWORK_UPDATE_DISTANCE;
 public class TileStatePacket extends PacketBase implements IPacketClient {
 
     protected BlockPos pos;
+    protected byte mode = TilePacketDelta.MODE_FULL;
     protected FriendlyByteBuf buffer;
 
     public TileStatePacket() {
@@ -36,17 +46,34 @@ public class TileStatePacket extends PacketBase implements IPacketClient {
         }
         BlockEntity tile = world.getBlockEntity(pos);
         if (tile instanceof IPacketHandlerTile handlerTile) {
-            handlerTile.handleStatePacket(buffer);
+            FriendlyByteBuf payload = buffer;
+            if (mode != TilePacketDelta.MODE_FULL) {
+                byte[] bytes = TilePacketDelta.receive(TilePacketDelta.STATE, world, pos, mode, buffer);
+                if (bytes == null) {
+                    TileResyncPacket.sendToServer(pos, TilePacketDelta.STATE);
+                    return;
+                }
+                payload = new FriendlyByteBuf(Unpooled.wrappedBuffer(bytes));
+            }
+            handlerTile.handleStatePacket(payload);
             BlockState state = tile.getLevel().getBlockState(pos);
             tile.getLevel().sendBlockUpdated(pos, state, state, 3);
         }
     }
 
+    @Override
+    public long coalesceKey() {
+
+        return mode == TilePacketDelta.MODE_FULL ? pos.asLong() : NO_COALESCE;
+    }
+
     @Override
     public void write(FriendlyByteBuf buf) {
 
         buf.writeBlockPos(pos);
-        buf.writeBytes(buffer);
+        buf.writeByte(mode);
+        // Not consumed; a delta packet may be written once per player.
+        buf.writeBytes(buffer, buffer.readerIndex(), buffer.readableBytes());
     }
 
     @Override
@@ -54,6 +81,7 @@ public class TileStatePacket extends PacketBase implements IPacketClient {
 
         buffer = buf;
         pos = buffer.readBlockPos();
+        mode = buffer.readByte();
     }
 
     public static void sendToClient(IPacketHandlerTile tile) {
@@ -61,10 +89,99 @@ public class TileStatePacket extends PacketBase implements IPacketClient {
         if (tile.world() == null || Utils.isClientWorld(tile.world())) {
             return;
         }
+        if (tile.useDeltaPackets()) {
+            sendDeltas(tile);
+            return;
+        }
         TileStatePacket packet = new TileStatePacket();
         packet.pos = tile.pos();
-        packet.buffer = tile.getStatePacket(new FriendlyByteBuf(Unpooled.buffer()));
-        packet.sendToAllAround(packet.pos, NETWORK_UPDATE_DISTANCE, tile.world().dimension());
+        FriendlyByteBuf buffer = pooledBuffer();
+        try {
+            packet.buffer = tile.getStatePacket(buffer);
+            packet.sendToAllAround(packet.pos, NETWORK_UPDATE_DISTANCE, tile.world().dimension());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Sends a full state payload to a single player, resetting that player's baseline for delta encoding.
+     */
+    public static void sendToPlayer(IPacketHandlerTile tile, ServerPlayer player) {
+
+        if (tile.world() == null || Utils.isClientWorld(tile.world())) {
+            return;
+        }
+        FriendlyByteBuf buffer = pooledBuffer();
+        try {
+            FriendlyByteBuf state = tile.getStatePacket(buffer);
+            TileStatePacket packet = new TileStatePacket();
+            packet.pos = tile.pos();
+            if (tile.useDeltaPackets()) {
+                byte[] payload = new byte[state.readableBytes()];
+                state.readBytes(payload);
+                state.clear();
+                int size = TilePacketDelta.encode(null, payload, state);
+                packet.mode = state.readByte();
+                TilePacketDelta.setBaseline(TilePacketDelta.STATE, player, tile, payload);
+                TilePacketDelta.onSent(TilePacketDelta.STATE, size, payload.length);
+            }
+            packet.buffer = state;
+            packet.sendToPlayer(player);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Sends each player in range only the changes since the payload it last received; players which were sent the same previous payload
+     * share one encoded packet.
+     */
+    protected static void sendDeltas(IPacketHandlerTile tile) {
+
+        FriendlyByteBuf buffer = pooledBuffer();
+        byte[] payload;
+        try {
+            FriendlyByteBuf state = tile.getStatePacket(buffer);
+            payload = new byte[state.readableBytes()];
+            state.readBytes(payload);
+        } finally {
+            buffer.release();
+        }
+
+        BlockPos pos = tile.pos();
+        double rangeSqr = NETWORK_UPDATE_DISTANCE * NETWORK_UPDATE_DISTANCE;
+        Map<byte[], TileStatePacket> encoded = new IdentityHashMap<>();
+        Map<byte[], Packet<?>> vanilla = new IdentityHashMap<>();
+        Map<byte[], Integer> sizes = new IdentityHashMap<>();
+        // Deltas must reach the client after any baseline queued earlier in the tick.
+        boolean coalescing = CoFHCore.PACKET_HANDLER.isCoalescing();
+
+        for (ServerPlayer player : ((ServerLevel) tile.world()).players()) {
+            if (player.distanceToSqr(pos.getX(), pos.getY(), pos.getZ()) >= rangeSqr) {
+                continue;
+            }
+            byte[] baseline = TilePacketDelta.getBaseline(TilePacketDelta.STATE, player, tile);
+            if (TilePacketDelta.isUnchanged(TilePacketDelta.STATE, baseline, payload)) {
+                continue;
+            }
+            TileStatePacket statePacket = encoded.get(baseline);
+            if (statePacket == null) {
+                statePacket = new TileStatePacket();
+                statePacket.pos = pos;
+                statePacket.buffer = new FriendlyByteBuf(Unpooled.buffer());
+                sizes.put(baseline, TilePacketDelta.encode(baseline, payload, statePacket.buffer));
+                statePacket.mode = statePacket.buffer.readByte();
+                encoded.put(baseline, statePacket);
+            }
+            if (coalescing) {
+                CoFHCore.PACKET_HANDLER.queue(statePacket, player);
+            } else {
+                player.connection.send(vanilla.computeIfAbsent(baseline, b -> encoded.get(b).toVanillaPacket(NetworkDirection.PLAY_TO_CLIENT)));
+            }
+            TilePacketDelta.setBaseline(TilePacketDelta.STATE, player, tile, payload);
+            TilePacketDelta.onSent(TilePacketDelta.STATE, sizes.get(baseline), payload.length);
+        }
     }
 
 }
@@ -0,0 +1,72 @@
+package cofh.core.network.packet.server;
+
+import cofh.core.CoFHCore;
+import cofh.core.network.packet.TilePacketDelta;
+import cofh.core.network.packet.client.TileGuiPacket;
+import cofh.core.network.packet.client.TileStatePacket;
+import cofh.lib.api.block.entity.IPacketHandlerTile;
+import cofh.lib.network.packet.IPacketServer;
+import cofh.lib.network.packet.PacketBase;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+import static cofh.core.network.packet.PacketIDs.PACKET_TILE_RESYNC;
+import static cofh.lib.util.Constants.NETWORK_UPDATE_DISTANCE;
+
+/**
+ * Sent by the client when it receives a delta encoded tile packet it cannot apply; the server replies with a full payload.
+ */
+public class TileResyncPacket extends PacketBase implements IPacketServer {
+
+    protected BlockPos pos;
+    protected int channel;
+
+    public TileResyncPacket() {
+
+        super(PACKET_TILE_RESYNC, CoFHCore.PACKET_HANDLER);
+    }
+
+    @Override
+    public void handleServer(ServerPlayer player) {
+
+        Level world = player.level;
+        if (!world.isLoaded(pos) || player.distanceToSqr(pos.getX(), pos.getY(), pos.getZ()) >= NETWORK_UPDATE_DISTANCE * NETWORK_UPDATE_DISTANCE) {
+            return;
+        }
+        BlockEntity tile = world.getBlockEntity(pos);
+        if (tile instanceof IPacketHandlerTile handlerTile) {
+            if (channel == TilePacketDelta.GUI) {
+                TilePacketDelta.clearBaseline(TilePacketDelta.GUI, player, tile);
+                TileGuiPacket.sendToClient(handlerTile, player);
+            } else {
+                TileStatePacket.sendToPlayer(handlerTile, player);
+            }
+        }
+    }
+
+    @Override
+    public void write(FriendlyByteBuf buf) {
+
+        buf.writeBlockPos(pos);
+        buf.writeByte(channel);
+    }
+
+    @Override
+    public void read(FriendlyByteBuf buf) {
+
+        pos = buf.readBlockPos();
+        channel = buf.readByte();
+    }
+
+    public static void sendToServer(BlockPos pos, int channel) {
+
+        TileResyncPacket packet = new TileResyncPacket();
+        packet.pos = pos;
+        packet.channel = channel;
+        packet.sendToServer();
+    }
+
+}
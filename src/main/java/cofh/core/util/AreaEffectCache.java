@@ -0,0 +1,253 @@
+package cofh.core.util;
+
+import cofh.core.capability.templates.AreaEffectItemWrapper;
+import cofh.core.item.IMultiModeItem;
+import cofh.lib.util.SidedVariable;
+import cofh.lib.util.raytracer.RayTracer;
+import com.google.common.collect.ImmutableList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ClipContext;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.HitResult;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static cofh.core.capability.CapabilityAreaEffect.AREA_EFFECT_ITEM_CAPABILITY;
+
+/**
+ * Per-player cache of area effect block sets.
+ * <p>
+ * Mining (break speed, break) and highlight rendering all ask for the same area every tick/frame while a player is looking at a block.
+ * Entries are keyed by tool stack identity and mode, origin, hit face and a block-change epoch; the epoch of an entry is bumped whenever a
+ * block inside (or adjacent to) its area is updated. Server updates come from neighbor notifications, client updates from the level
+ * renderer. Entries only hold their level weakly, so a cached entry never keeps an unloaded level alive.
+ */
+public final class AreaEffectCache {
+
+    private static final SidedVariable<Map<Player, Entry>> CACHE = new SidedVariable<>(WeakHashMap::new);
+
+    // Shared by the server and client threads.
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private AreaEffectCache() {
+
+    }
+
+    /**
+     * Returns the (possibly cached) area effect blocks for the given stack, origin and player.
+     */
+    public static ImmutableList<BlockPos> getAreaEffectBlocks(ItemStack stack, BlockPos origin, Player player) {
+
+        return getEntry(stack, origin, player).blocks;
+    }
+
+    /**
+     * Returns the maximum destroy speed in the (possibly cached) area, or the given hardness if nothing in the area is harder.
+     */
+    public static float getMaxHardness(ItemStack stack, BlockPos origin, Player player, float curHardness) {
+
+        Entry entry = getEntry(stack, origin, player);
+        if (Float.isNaN(entry.maxHardness)) {
+            entry.maxHardness = computeMaxHardness(player.level, entry.blocks);
+        }
+        return Math.max(curHardness, entry.maxHardness);
+    }
+
+    /**
+     * Called on block updates; marks any entry whose area contains (or borders) the position as stale.
+     */
+    public static void onBlockChanged(LevelAccessor level, BlockPos pos) {
+
+        Map<Player, Entry> cache = CACHE.get(level.isClientSide());
+        if (cache.isEmpty()) {
+            return;
+        }
+        for (Entry entry : cache.values()) {
+            if (entry.level.get() == level && entry.isNear(pos)) {
+                ++entry.epoch;
+            }
+        }
+    }
+
+    public static void invalidate(Player player) {
+
+        CACHE.get(player.level.isClientSide).remove(player);
+    }
+
+    public static void clear(boolean isClient) {
+
+        CACHE.get(isClient).clear();
+    }
+
+    // region METRICS
+    public static long getHits() {
+
+        return HITS.get();
+    }
+
+    public static long getMisses() {
+
+        return MISSES.get();
+    }
+
+    public static void resetMetrics() {
+
+        HITS.set(0);
+        MISSES.set(0);
+    }
+    // endregion
+
+    // region HELPERS
+    private static Entry getEntry(ItemStack stack, BlockPos origin, Player player) {
+
+        Map<Player, Entry> cache = CACHE.get(player.level.isClientSide);
+        Entry entry = cache.get(player);
+        if (entry == null) {
+            entry = new Entry();
+            cache.put(player, entry);
+        } else if (entry.matches(stack, origin, player)) {
+            HITS.incrementAndGet();
+            return entry;
+        }
+        MISSES.incrementAndGet();
+        entry.fill(stack, origin, player);
+        return entry;
+    }
+
+    private static float computeMaxHardness(BlockGetter world, ImmutableList<BlockPos> areaBlocks) {
+
+        float maxHardness = 0.0F;
+        float testHardness;
+
+        for (BlockPos pos : areaBlocks) {
+            testHardness = world.getBlockState(pos).getDestroySpeed(world, pos);
+            if (testHardness > maxHardness) {
+                maxHardness = testHardness;
+            }
+        }
+        return maxHardness;
+    }
+
+    private static int getMode(ItemStack stack) {
+
+        return stack.getItem() instanceof IMultiModeItem multiMode ? multiMode.getMode(stack) : 0;
+    }
+
+    @Nullable
+    private static Direction getHitFace(Player player) {
+
+        BlockHitResult traceResult = RayTracer.retrace(player, ClipContext.Fluid.NONE);
+        return traceResult.getType() == HitResult.Type.MISS ? null : traceResult.getDirection();
+    }
+    // endregion
+
+    // region ENTRY
+    private static class Entry {
+
+        ItemStack stack = ItemStack.EMPTY;
+        // Modes are changed in place on the same stack.
+        int mode;
+        long origin;
+        @Nullable
+        Direction face;
+        WeakReference<LevelAccessor> level = new WeakReference<>(null);
+        boolean sneaking;
+
+        // Epoch the blocks were computed at vs. current epoch of this entry.
+        int epoch;
+        int builtEpoch = -1;
+
+        // View snapshot; if unchanged the hit face cannot have changed either, so the retrace is skipped.
+        double eyeX;
+        double eyeY;
+        double eyeZ;
+        float xRot;
+        float yRot;
+
+        ImmutableList<BlockPos> blocks = ImmutableList.of();
+        float maxHardness = Float.NaN;
+
+        int minX;
+        int minY;
+        int minZ;
+        int maxX;
+        int maxY;
+        int maxZ;
+
+        boolean matches(ItemStack stack, BlockPos origin, Player player) {
+
+            if (this.stack != stack || this.mode != getMode(stack) || this.origin != origin.asLong() || this.level.get() != player.level || this.sneaking != player.isSecondaryUseActive() || this.builtEpoch != this.epoch) {
+                return false;
+            }
+            if (viewUnchanged(player)) {
+                return true;
+            }
+            if (getHitFace(player) != face) {
+                return false;
+            }
+            snapshotView(player);
+            return true;
+        }
+
+        void fill(ItemStack stack, BlockPos origin, Player player) {
+
+            this.stack = stack;
+            this.mode = getMode(stack);
+            this.origin = origin.asLong();
+            this.face = getHitFace(player);
+            if (this.level.get() != player.level) {
+                this.level = new WeakReference<>(player.level);
+            }
+            this.sneaking = player.isSecondaryUseActive();
+            this.blocks = stack.getCapability(AREA_EFFECT_ITEM_CAPABILITY).orElse(new AreaEffectItemWrapper(stack)).getAreaEffectBlocks(origin, player);
+            this.maxHardness = Float.NaN;
+            this.builtEpoch = this.epoch;
+            snapshotView(player);
+
+            minX = maxX = origin.getX();
+            minY = maxY = origin.getY();
+            minZ = maxZ = origin.getZ();
+            for (BlockPos pos : blocks) {
+                minX = Math.min(minX, pos.getX());
+                minY = Math.min(minY, pos.getY());
+                minZ = Math.min(minZ, pos.getZ());
+                maxX = Math.max(maxX, pos.getX());
+                maxY = Math.max(maxY, pos.getY());
+                maxZ = Math.max(maxZ, pos.getZ());
+            }
+        }
+
+        boolean isNear(BlockPos pos) {
+
+            return pos.getX() >= minX - 1 && pos.getX() <= maxX + 1
+                    && pos.getY() >= minY - 1 && pos.getY() <= maxY + 1
+                    && pos.getZ() >= minZ - 1 && pos.getZ() <= maxZ + 1;
+        }
+
+        private boolean viewUnchanged(Player player) {
+
+            return eyeX == player.getX() && eyeY == player.getEyeY() && eyeZ == player.getZ() && xRot == player.getXRot() && yRot == player.getYRot();
+        }
+
+        private void snapshotView(Player player) {
+
+            eyeX = player.getX();
+            eyeY = player.getEyeY();
+            eyeZ = player.getZ();
+            xRot = player.getXRot();
+            yRot = player.getYRot();
+        }
+
+    }
+    // endregion
+}
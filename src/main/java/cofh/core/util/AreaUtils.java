@@ -23,11 +23,14 @@ import net.minecraft.world.level.material.Material;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.Vec3;
 import net.minecraft.world.phys.shapes.CollisionContext;
+import org.apache.commons.lang3.mutable.MutableInt;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
 import java.util.function.Predicate;
 
 import static cofh.core.init.CoreBlocks.*;
@@ -45,6 +48,8 @@ public class AreaUtils {
 
     public static final Set<BlockState> REPLACEABLE_AIR = new ObjectOpenHashSet<>(new BlockState[]{AIR.defaultBlockState(), CAVE_AIR.defaultBlockState()});
 
+    private static final Predicate<BlockState> NOT_AIR = state -> !state.isAir();
+
     public static final IEffectApplier IGNITE_ENTITIES = (target, duration, power, source) -> {
 
         if (!target.fireImmune() && !target.isInWater() && target.getRemainingFireTicks() <= 0) {
@@ -79,7 +84,7 @@ public class AreaUtils {
         }
     };
 
-    public static final IBlockTransformer FIRE_TRANSFORM = (world, pos, face, entity) -> {
+    public static final IBlockTransformer FIRE_TRANSFORM = IBlockTransformer.filtered(BlockState::isAir, (world, pos, face, entity) -> {
 
         boolean succeeded = false;
         BlockState state = world.getBlockState(pos);
@@ -90,7 +95,7 @@ public class AreaUtils {
             }
         }
         return succeeded;
-    };
+    });
 
     public static final IBlockTransformer FIRE_TRANSFORM_SPECIAL = (world, pos, face, entity) -> {
 
@@ -211,7 +216,7 @@ public class AreaUtils {
         return succeeded;
     };
 
-    public static final IBlockTransformer SNOW_LAYER_TRANSFORM = (world, pos, face, entity) -> {
+    public static final IBlockTransformer SNOW_LAYER_TRANSFORM = IBlockTransformer.filtered(state -> state.getBlock() == SNOW, (world, pos, face, entity) -> {
 
         boolean succeeded = false;
         BlockState state = world.getBlockState(pos);
@@ -222,7 +227,7 @@ public class AreaUtils {
             }
         }
         return succeeded;
-    };
+    });
 
     public static final IBlockTransformer EARTH_TRANSFORM = (world, pos, face, entity) -> {
         boolean succeeded = false;
@@ -234,7 +239,7 @@ public class AreaUtils {
         return succeeded;
     };
 
-    public static final IBlockTransformer LIGHTNING_TRANSFORM = (world, pos, face, entity) -> {
+    public static final IBlockTransformer LIGHTNING_TRANSFORM = IBlockTransformer.filtered(BlockState::isAir, (world, pos, face, entity) -> {
         boolean succeeded = false;
         BlockState state = world.getBlockState(pos);
         if (state.isAir()) {
@@ -243,7 +248,7 @@ public class AreaUtils {
             }
         }
         return succeeded;
-    };
+    });
     // endregion ELEMENTAL
 
     // region CONVERSION
@@ -287,32 +292,36 @@ public class AreaUtils {
             return false;
         }
 
+        @Override
+        public Predicate<BlockState> filter() {
+
+            return BlockState::isAir;
+        }
+
         @Override
         public void transformSphere(Level levelIn, Vec3 pos, float radius, float chance, int max, @Nullable Entity entity) {
 
             float f = Math.min(HORZ_MAX, radius);
-            float v = Math.min(VERT_MAX, radius);
             float f2 = f * f;
             BlockPos origin = new BlockPos(pos);
+            MutableInt remaining = new MutableInt(max);
 
             if (transformBlock(levelIn, origin.relative(Direction.UP), Direction.DOWN, entity)) {
-                --max;
+                remaining.decrement();
             }
-            for (BlockPos iterPos : BlockPos.betweenClosed(origin.offset(-f, -v, -f), origin.offset(f + 1, v + 1, f + 1))) {
-                if (max <= 0) {
-                    return;
+            BlockScanner.scanSphere(levelIn, origin, f, filter(), (iterPos, state, distSqr) -> {
+                if (remaining.intValue() <= 0) {
+                    return false;
                 }
-                double distance = iterPos.distSqr(origin);
-                if (distance < f2) {
-                    if (levelIn.random.nextDouble() < 0.5 - (distance / f2) && transformBlock(levelIn, iterPos, Direction.DOWN, entity)) {
-                        --max;
-                    }
+                if (levelIn.random.nextDouble() < 0.5 - (distSqr / f2) && transformBlock(levelIn, iterPos, Direction.DOWN, entity)) {
+                    remaining.decrement();
                 }
-            }
+                return true;
+            });
         }
     };
 
-    public static final IBlockTransformer GROW_PLANTS = (world, pos, face, entity) -> {
+    public static final IBlockTransformer GROW_PLANTS = IBlockTransformer.filtered(state -> state.getBlock() instanceof BonemealableBlock, (world, pos, face, entity) -> {
 
         BlockState state = world.getBlockState(pos);
         if (state.getBlock() instanceof BonemealableBlock) {
@@ -331,48 +340,18 @@ public class AreaUtils {
             }
         }
         return false;
-    };
+    });
     // endregion GROWTH
 
     // region HELPER
     private static IBlockTransformer getConversionTransform(Set<BlockState> replaceable, BlockState replacement, boolean requireAir) {
 
-        if (requireAir) {
-            return (levelIn, pos, face, entity) -> {
-                BlockPos above = pos.relative(Direction.UP);
-                if (levelIn.getBlockState(above).isAir() && replaceable.contains(levelIn.getBlockState(pos))) {
-                    return levelIn.setBlockAndUpdate(pos, replacement);
-                }
-                return false;
-            };
-        } else {
-            return (levelIn, pos, face, entity) -> {
-                if (replaceable.contains(levelIn.getBlockState(pos))) {
-                    return levelIn.setBlockAndUpdate(pos, replacement);
-                }
-                return false;
-            };
-        }
+        return new ConversionTransform(replaceable::contains, replacement, requireAir);
     }
 
     private static IBlockTransformer getConversionTransform(BlockState replaceable, BlockState replacement, boolean requireAir) {
 
-        if (requireAir) {
-            return (levelIn, pos, face, entity) -> {
-                BlockPos above = pos.relative(Direction.UP);
-                if (levelIn.getBlockState(above).isAir() && replaceable.equals(levelIn.getBlockState(pos))) {
-                    return levelIn.setBlockAndUpdate(pos, replacement);
-                }
-                return false;
-            };
-        } else {
-            return (levelIn, pos, face, entity) -> {
-                if (replaceable.equals(levelIn.getBlockState(pos))) {
-                    return levelIn.setBlockAndUpdate(pos, replacement);
-                }
-                return false;
-            };
-        }
+        return new ConversionTransform(replaceable::equals, replacement, requireAir);
     }
 
     public static boolean isLitCampfire(BlockState state) {
@@ -441,54 +420,145 @@ public class AreaUtils {
 
         boolean transformBlock(Level level, BlockPos pos, Direction face, @Nullable Entity entity);
 
-        default void transformSphere(Level level, Vec3 pos, float radius, @Nullable Entity entity) {
+        /**
+         * States this transformer could possibly affect. Area scans skip any position (and any chunk section) which cannot match.
+         */
+        default Predicate<BlockState> filter() {
 
-            float f = Math.min(HORZ_MAX, radius);
-            float v = Math.min(VERT_MAX, radius);
-            float f2 = f * f;
-            BlockPos origin = new BlockPos(pos);
+            return BlockScanner.ANY;
+        }
 
-            for (BlockPos iterPos : BlockPos.betweenClosed(origin.offset(-f, -v, -f), origin.offset(f + 1, v + 1, f + 1))) {
-                if (iterPos.distSqr(origin) < f2) {
-                    transformBlock(level, iterPos, Direction.DOWN, entity);
-                }
-            }
+        /**
+         * Transformers which only ever swap one state for another may opt in to deferred, budgeted application (see
+         * {@link BlockMutationQueue}) by returning TRUE here and implementing {@link #getReplacement(Level, BlockPos, BlockState)}.
+         */
+        default boolean isDeferrable() {
+
+            return false;
+        }
+
+        /**
+         * @return The state this transformer would place at the position, or null if it would not change it.
+         */
+        @Nullable
+        default BlockState getReplacement(Level level, BlockPos pos, BlockState state) {
+
+            return null;
+        }
+
+        default void transformSphere(Level level, Vec3 pos, float radius, @Nullable Entity entity) {
+
+            transformSphere(level, pos, radius, 1.0F, entity);
         }
 
         default void transformSphere(Level levelIn, Vec3 pos, float radius, float chance, @Nullable Entity entity) {
 
-            float f = Math.min(HORZ_MAX, radius);
-            float v = Math.min(VERT_MAX, radius);
-            float f2 = f * f;
             BlockPos origin = new BlockPos(pos);
-
-            for (BlockPos iterPos : BlockPos.betweenClosed(origin.offset(-f, -v, -f), origin.offset(f, v, f))) {
-                double distSqr = iterPos.distSqr(origin);
-                if (distSqr < f2 && (chance > 0.99999F || levelIn.random.nextDouble() < chance)) {
+            if (isDeferrable() && levelIn instanceof ServerLevel serverLevel && BlockMutationQueue.enabled()) {
+                BlockMutationQueue queue = BlockMutationQueue.get(serverLevel).begin(origin);
+                BiPredicate<ServerLevel, BlockPos> recheck = (level, checkPos) -> getReplacement(level, checkPos, level.getBlockState(checkPos)) != null;
+                BlockScanner.scanSphere(levelIn, origin, radius, filter(), (iterPos, state, distSqr) -> {
+                    if (chance > 0.99999F || levelIn.random.nextDouble() < chance) {
+                        BlockState replacement = getReplacement(levelIn, iterPos, state);
+                        if (replacement != null) {
+                            queue.enqueue(iterPos, state, replacement, recheck, null);
+                        }
+                    }
+                    return true;
+                });
+                queue.drain();
+                return;
+            }
+            BlockScanner.scanSphere(levelIn, origin, radius, filter(), (iterPos, state, distSqr) -> {
+                if (chance > 0.99999F || levelIn.random.nextDouble() < chance) {
                     transformBlock(levelIn, iterPos, Direction.DOWN, entity);
                 }
-            }
+                return true;
+            });
         }
 
         default void transformSphere(Level levelIn, Vec3 pos, float radius, float chance, int max, @Nullable Entity entity) {
 
-            float f = Math.min(HORZ_MAX, radius);
-            float v = Math.min(VERT_MAX, radius);
-            float f2 = f * f;
             BlockPos origin = new BlockPos(pos);
+            MutableInt remaining = new MutableInt(max);
 
             if (transformBlock(levelIn, origin, Direction.DOWN, entity)) {
-                --max;
+                remaining.decrement();
             }
-            for (BlockPos iterPos : BlockPos.betweenClosed(origin.offset(-f, -v, -f), origin.offset(f, v, f))) {
-                if (max <= 0) {
-                    return;
+            BlockScanner.scanSphere(levelIn, origin, radius, filter(), (iterPos, state, distSqr) -> {
+                if (remaining.intValue() <= 0) {
+                    return false;
+                }
+                if (distSqr > 0 && (chance > 0.99999F || levelIn.random.nextDouble() < chance) && transformBlock(levelIn, iterPos, Direction.DOWN, entity)) {
+                    remaining.decrement();
+                }
+                return true;
+            });
+        }
+
+        /**
+         * Wraps a transformer with a state filter, allowing area scans to skip positions it cannot affect.
+         */
+        static IBlockTransformer filtered(Predicate<BlockState> filter, IBlockTransformer transformer) {
+
+            return new IBlockTransformer() {
+
+                @Override
+                public boolean transformBlock(Level level, BlockPos pos, Direction face, @Nullable Entity entity) {
+
+                    return transformer.transformBlock(level, pos, face, entity);
                 }
-                double distSqr = iterPos.distSqr(origin);
-                if (distSqr < f2 && (chance > 0.99999F || levelIn.random.nextDouble() < chance) && transformBlock(levelIn, iterPos, Direction.DOWN, entity)) {
-                    --max;
+
+                @Override
+                public Predicate<BlockState> filter() {
+
+                    return filter;
                 }
+            };
+        }
+
+    }
+
+    private static class ConversionTransform implements IBlockTransformer {
+
+        private final Predicate<BlockState> replaceable;
+        private final BlockState replacement;
+        private final boolean requireAir;
+
+        ConversionTransform(Predicate<BlockState> replaceable, BlockState replacement, boolean requireAir) {
+
+            this.replaceable = replaceable;
+            this.replacement = replacement;
+            this.requireAir = requireAir;
+        }
+
+        @Override
+        public boolean transformBlock(Level level, BlockPos pos, Direction face, @Nullable Entity entity) {
+
+            BlockState state = level.getBlockState(pos);
+            return getReplacement(level, pos, state) != null && level.setBlockAndUpdate(pos, replacement);
+        }
+
+        @Override
+        public Predicate<BlockState> filter() {
+
+            return replaceable;
+        }
+
+        @Override
+        public boolean isDeferrable() {
+
+            return true;
+        }
+
+        @Nullable
+        @Override
+        public BlockState getReplacement(Level level, BlockPos pos, BlockState state) {
+
+            if (replaceable.test(state) && (!requireAir || level.getBlockState(pos.above()).isAir())) {
+                return replacement;
             }
+            return null;
         }
 
     }
@@ -510,49 +580,40 @@ public class AreaUtils {
 
     public static void igniteNearbyGround(Entity entity, Level levelIn, BlockPos pos, int radius, double chance) {
 
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
-        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
 
-        for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            double distance = blockpos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                mutable.set(blockpos.getX(), blockpos.getY() + 1, blockpos.getZ());
-                BlockState blockstate1 = levelIn.getBlockState(mutable);
-                if (blockstate1.isAir()) {
-                    if (isValidFirePosition(levelIn, mutable, chance)) {
-                        levelIn.setBlockAndUpdate(mutable, ((FireBlock) FIRE).getStateForPlacement(levelIn, mutable));
-                    }
-                }
+        BlockScanner.scanSphere(levelIn, pos, radius, NOT_AIR, (iterPos, state, distSqr) -> {
+            above.setWithOffset(iterPos, Direction.UP);
+            if (levelIn.getBlockState(above).isAir() && isValidFireSupport(levelIn, iterPos, state, chance)) {
+                levelIn.setBlockAndUpdate(above, ((FireBlock) FIRE).getStateForPlacement(levelIn, above));
             }
-        }
+            return true;
+        });
     }
 
     public static void igniteSpecial(Entity entity, Level levelIn, BlockPos pos, int radius, boolean campfire, boolean tnt, @Nullable Entity igniter) {
 
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
+        Predicate<BlockState> filter = state -> campfire && isUnlitCampfire(state) || tnt && isUnlitTNT(state);
 
-        for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            double distance = blockpos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                BlockState state = levelIn.getBlockState(blockpos);
-                if (campfire && isUnlitCampfire(state)) {
-                    levelIn.setBlockAndUpdate(blockpos, state.setValue(BlockStateProperties.LIT, true));
-                } else if (tnt && isUnlitTNT(state)) {
-                    state.getBlock().onCaughtFire(state, levelIn, blockpos, Direction.UP, igniter instanceof LivingEntity ? (LivingEntity) igniter : null);
-                    levelIn.setBlockAndUpdate(blockpos, AIR.defaultBlockState());
-                }
+        BlockScanner.scanSphere(levelIn, pos, radius, filter, (iterPos, state, distSqr) -> {
+            if (campfire && isUnlitCampfire(state)) {
+                levelIn.setBlockAndUpdate(iterPos, state.setValue(BlockStateProperties.LIT, true));
+            } else {
+                state.getBlock().onCaughtFire(state, levelIn, iterPos, Direction.UP, igniter instanceof LivingEntity ? (LivingEntity) igniter : null);
+                levelIn.setBlockAndUpdate(iterPos, AIR.defaultBlockState());
             }
-        }
+            return true;
+        });
     }
 
     public static boolean isValidFirePosition(Level levelIn, BlockPos pos, double chance) {
 
         BlockPos below = pos.below();
-        BlockState state = levelIn.getBlockState(below);
+        return isValidFireSupport(levelIn, below, levelIn.getBlockState(below), chance);
+    }
+
+    private static boolean isValidFireSupport(Level levelIn, BlockPos below, BlockState state, double chance) {
+
         if (Block.isFaceFull(state.getCollisionShape(levelIn, below), Direction.UP)) {
             return state.getMaterial().isFlammable() || levelIn.random.nextDouble() < chance; // Random chance.
         }
@@ -563,92 +624,40 @@ public class AreaUtils {
     // region FREEZING
     public static void freezeNearbyGround(Entity entity, Level levelIn, BlockPos pos, int radius) {
 
-        BlockState state = SNOW.defaultBlockState();
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
-        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+        BlockState snow = SNOW.defaultBlockState();
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
 
-        for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            double distance = blockpos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                mutable.set(blockpos.getX(), blockpos.getY() + 1, blockpos.getZ());
-                BlockState blockstate1 = levelIn.getBlockState(mutable);
-                if (blockstate1.isAir()) {
-                    if (levelIn.getBiome(mutable).value().getTemperature(blockpos) < 0.8F && isValidSnowPosition(levelIn, mutable)) {
-                        levelIn.setBlockAndUpdate(mutable, state);
-                    }
-                }
+        BlockScanner.scanSphere(levelIn, pos, radius, NOT_AIR, (iterPos, state, distSqr) -> {
+            above.setWithOffset(iterPos, Direction.UP);
+            if (levelIn.getBlockState(above).isAir() && levelIn.getBiome(above).value().getTemperature(iterPos) < 0.8F && isValidSnowSupport(levelIn, iterPos, state)) {
+                levelIn.setBlockAndUpdate(above, snow);
             }
-        }
+            return true;
+        });
     }
 
     public static void freezeSpecial(Entity entity, Level levelIn, BlockPos pos, int radius, boolean campfire, boolean fire) {
 
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
+        Predicate<BlockState> filter = state -> campfire && isLitCampfire(state) || fire && state.getBlock() == FIRE;
 
-        for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            double distance = blockpos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                BlockState state = levelIn.getBlockState(blockpos);
-                if (campfire && isLitCampfire(state)) {
-                    levelIn.setBlockAndUpdate(blockpos, state.setValue(BlockStateProperties.LIT, false));
-                } else if (fire && state.getBlock() == FIRE) {
-                    levelIn.setBlockAndUpdate(blockpos, AIR.defaultBlockState());
-                }
+        BlockScanner.scanSphere(levelIn, pos, radius, filter, (iterPos, state, distSqr) -> {
+            if (campfire && isLitCampfire(state)) {
+                levelIn.setBlockAndUpdate(iterPos, state.setValue(BlockStateProperties.LIT, false));
+            } else {
+                levelIn.setBlockAndUpdate(iterPos, AIR.defaultBlockState());
             }
-        }
+            return true;
+        });
     }
 
     public static void freezeSurfaceWater(Entity entity, Level level, BlockPos pos, int radius, boolean permanent) {
 
-        BlockState state = permanent ? ICE.defaultBlockState() : FROSTED_ICE.defaultBlockState();
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
-        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
-
-        for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            double distance = blockpos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                mutable.set(blockpos.getX(), blockpos.getY() + 1, blockpos.getZ());
-                BlockState blockstate1 = level.getBlockState(mutable);
-                if (blockstate1.isAir()) {
-                    BlockState blockstate2 = level.getBlockState(blockpos);
-                    boolean isFull = blockstate2.getBlock() == WATER && blockstate2.getValue(LiquidBlock.LEVEL) == 0;
-                    if (blockstate2.getMaterial() == Material.WATER && isFull && state.canSurvive(level, blockpos) && level.isUnobstructed(state, blockpos, CollisionContext.empty())) {
-                        level.setBlockAndUpdate(blockpos, state);
-                        if (!permanent) {
-                            level.scheduleTick(blockpos, FROSTED_ICE, MathHelper.nextInt(level.random, 60, 120));
-                        }
-                    }
-                }
-            }
-        }
+        freezeFluid(level, pos, radius, AreaUtils::isWaterSource, permanent ? ICE.defaultBlockState() : FROSTED_ICE.defaultBlockState(), permanent ? null : FROSTED_ICE, true);
     }
 
     public static void freezeAllWater(Entity entity, Level levelIn, BlockPos pos, int radius, boolean permanent) {
 
-        BlockState state = permanent ? ICE.defaultBlockState() : FROSTED_ICE.defaultBlockState();
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
-
-        for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            double distance = blockpos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                BlockState blockstate2 = levelIn.getBlockState(blockpos);
-                boolean isFull = blockstate2.getBlock() == WATER && blockstate2.getValue(LiquidBlock.LEVEL) == 0;
-                if (blockstate2.getMaterial() == Material.WATER && isFull && state.canSurvive(levelIn, blockpos) && levelIn.isUnobstructed(state, blockpos, CollisionContext.empty())) {
-                    levelIn.setBlockAndUpdate(blockpos, state);
-                    if (!permanent) {
-                        levelIn.scheduleTick(blockpos, FROSTED_ICE, MathHelper.nextInt(levelIn.random, 60, 120));
-                    }
-                }
-            }
-        }
+        freezeFluid(levelIn, pos, radius, AreaUtils::isWaterSource, permanent ? ICE.defaultBlockState() : FROSTED_ICE.defaultBlockState(), permanent ? null : FROSTED_ICE, false);
     }
 
     public static void freezeSurfaceLava(Entity entity, Level levelIn, BlockPos pos, int radius, boolean permanent) {
@@ -656,29 +665,7 @@ public class AreaUtils {
         if (GLOSSED_MAGMA == null && !permanent) {
             return;
         }
-        BlockState state = permanent ? OBSIDIAN.defaultBlockState() : GLOSSED_MAGMA.get().defaultBlockState();
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
-        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
-
-        for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            double distance = blockpos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                mutable.set(blockpos.getX(), blockpos.getY() + 1, blockpos.getZ());
-                BlockState blockstate1 = levelIn.getBlockState(mutable);
-                if (blockstate1.isAir()) {
-                    BlockState blockstate2 = levelIn.getBlockState(blockpos);
-                    boolean isFull = blockstate2.getBlock() == LAVA && blockstate2.getValue(LiquidBlock.LEVEL) == 0;
-                    if (blockstate2.getMaterial() == Material.LAVA && isFull && state.canSurvive(levelIn, blockpos) && levelIn.isUnobstructed(state, blockpos, CollisionContext.empty())) {
-                        levelIn.setBlockAndUpdate(blockpos, state);
-                        if (!permanent) {
-                            levelIn.scheduleTick(blockpos, GLOSSED_MAGMA.get(), MathHelper.nextInt(levelIn.random, 60, 120));
-                        }
-                    }
-                }
-            }
-        }
+        freezeFluid(levelIn, pos, radius, AreaUtils::isLavaSource, permanent ? OBSIDIAN.defaultBlockState() : GLOSSED_MAGMA.get().defaultBlockState(), permanent ? null : GLOSSED_MAGMA.get(), true);
     }
 
     public static void freezeAllLava(Entity entity, Level levelIn, BlockPos pos, int radius, boolean permanent) {
@@ -686,109 +673,121 @@ public class AreaUtils {
         if (GLOSSED_MAGMA == null && !permanent) {
             return;
         }
-        BlockState state = permanent ? OBSIDIAN.defaultBlockState() : GLOSSED_MAGMA.get().defaultBlockState();
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
+        freezeFluid(levelIn, pos, radius, AreaUtils::isLavaSource, permanent ? OBSIDIAN.defaultBlockState() : GLOSSED_MAGMA.get().defaultBlockState(), permanent ? null : GLOSSED_MAGMA.get(), false);
+    }
 
-        for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            double distance = blockpos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                BlockState blockstate2 = levelIn.getBlockState(blockpos);
-                boolean isFull = blockstate2.getBlock() == LAVA && blockstate2.getValue(LiquidBlock.LEVEL) == 0;
-                if (blockstate2.getMaterial() == Material.LAVA && isFull && state.canSurvive(levelIn, blockpos) && levelIn.isUnobstructed(state, blockpos, CollisionContext.empty())) {
-                    levelIn.setBlockAndUpdate(blockpos, state);
-                    if (!permanent) {
-                        levelIn.scheduleTick(blockpos, GLOSSED_MAGMA.get(), MathHelper.nextInt(levelIn.random, 60, 120));
+    private static void freezeFluid(Level levelIn, BlockPos pos, int radius, Predicate<BlockState> source, BlockState frozen, @Nullable Block melting, boolean requireAir) {
+
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+        BlockMutationQueue queue = getMutationQueue(levelIn, pos);
+        BiConsumer<ServerLevel, BlockPos> scheduleMelt = melting == null ? null : (level, meltPos) -> level.scheduleTick(meltPos, melting, MathHelper.nextInt(level.random, 60, 120));
+        // Deferred writes may land ticks later; entities and blocks above may have moved in since.
+        BiPredicate<ServerLevel, BlockPos> recheck = (level, checkPos) -> (!requireAir || level.getBlockState(checkPos.above()).isAir())
+                && frozen.canSurvive(level, checkPos) && level.isUnobstructed(frozen, checkPos, CollisionContext.empty());
+
+        BlockScanner.scanSphere(levelIn, pos, radius, source, (iterPos, state, distSqr) -> {
+            if (requireAir && !levelIn.getBlockState(above.setWithOffset(iterPos, Direction.UP)).isAir()) {
+                return true;
+            }
+            if (frozen.canSurvive(levelIn, iterPos) && levelIn.isUnobstructed(frozen, iterPos, CollisionContext.empty())) {
+                if (queue != null) {
+                    queue.enqueue(iterPos, state, frozen, recheck, scheduleMelt);
+                } else {
+                    levelIn.setBlockAndUpdate(iterPos, frozen);
+                    if (melting != null) {
+                        levelIn.scheduleTick(iterPos.immutable(), melting, MathHelper.nextInt(levelIn.random, 60, 120));
                     }
                 }
             }
+            return true;
+        });
+        if (queue != null) {
+            queue.drain();
         }
     }
 
+    private static boolean isWaterSource(BlockState state) {
+
+        return state.getBlock() == WATER && state.getValue(LiquidBlock.LEVEL) == 0;
+    }
+
+    private static boolean isLavaSource(BlockState state) {
+
+        return state.getBlock() == LAVA && state.getValue(LiquidBlock.LEVEL) == 0;
+    }
+
     public static boolean isValidSnowPosition(Level levelIn, BlockPos pos) {
 
-        BlockState state = levelIn.getBlockState(pos.below());
+        BlockPos below = pos.below();
+        return isValidSnowSupport(levelIn, below, levelIn.getBlockState(below));
+    }
+
+    private static boolean isValidSnowSupport(Level levelIn, BlockPos below, BlockState state) {
+
         Block block = state.getBlock();
         if (block == ICE || block == PACKED_ICE || block == BARRIER || block == FROSTED_ICE || block == GLOSSED_MAGMA.get()) {
             return false;
         }
-        return Block.isFaceFull(state.getCollisionShape(levelIn, pos.below()), Direction.UP) || block == SNOW && state.getValue(SnowLayerBlock.LAYERS) == 8;
+        return Block.isFaceFull(state.getCollisionShape(levelIn, below), Direction.UP) || block == SNOW && state.getValue(SnowLayerBlock.LAYERS) == 8;
     }
     // endregion
 
     // region AREA TRANSFORMS / MISC
-    private static boolean isValidLightningBoltPosition(Level levelIn, BlockPos pos, double chance) {
+    private static boolean isValidLightningBoltPosition(Level levelIn, BlockPos pos, BlockPos below, BlockState state, double chance) {
 
-        BlockPos below = pos.below();
-        BlockState state = levelIn.getBlockState(below);
         if (levelIn.canSeeSky(pos) && Block.isFaceFull(state.getCollisionShape(levelIn, below), Direction.UP)) {
             return levelIn.random.nextDouble() < chance; // Random chance.
         }
         return false;
     }
 
-    public static void transformArea(Entity entity, Level levelIn, BlockPos pos, BlockState replaceable, BlockState replacement, int radius, boolean requireAir) {
+    private static boolean isValidLightningBoltPosition(Level levelIn, BlockPos pos, double chance) {
 
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
-        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+        BlockPos below = pos.below();
+        return isValidLightningBoltPosition(levelIn, pos, below, levelIn.getBlockState(below), chance);
+    }
 
-        if (requireAir) {
-            for (BlockPos iterPos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-                double distance = iterPos.distToCenterSqr(entity.position());
-                if (distance < f2) {
-                    mutable.set(iterPos.getX(), iterPos.getY() + 1, iterPos.getZ());
-                    BlockState blockstate1 = levelIn.getBlockState(mutable);
-                    if (blockstate1.isAir()) {
-                        if (levelIn.getBlockState(iterPos) == replaceable) {
-                            levelIn.setBlockAndUpdate(iterPos, replacement);
-                        }
-                    }
-                }
-            }
-        } else {
-            for (BlockPos iterPos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-                double distance = iterPos.distToCenterSqr(entity.position());
-                if (distance < f2) {
-                    if (levelIn.getBlockState(iterPos) == replaceable) {
-                        levelIn.setBlockAndUpdate(iterPos, replacement);
-                    }
-                }
-            }
-        }
+    public static void transformArea(Entity entity, Level levelIn, BlockPos pos, BlockState replaceable, BlockState replacement, int radius, boolean requireAir) {
+
+        transformArea(levelIn, pos, replaceable::equals, replacement, radius, requireAir);
     }
 
     public static void transformArea(Entity entity, Level levelIn, BlockPos pos, Set<BlockState> replaceable, BlockState replacement, int radius, boolean requireAir) {
 
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
-        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+        transformArea(levelIn, pos, replaceable::contains, replacement, radius, requireAir);
+    }
 
-        if (requireAir) {
-            for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-                double distance = blockpos.distToCenterSqr(entity.position());
-                if (distance < f2) {
-                    mutable.set(blockpos.getX(), blockpos.getY() + 1, blockpos.getZ());
-                    BlockState blockstate1 = levelIn.getBlockState(mutable);
-                    if (blockstate1.isAir()) {
-                        if (replaceable.contains(levelIn.getBlockState(blockpos))) {
-                            levelIn.setBlockAndUpdate(blockpos, replacement);
-                        }
-                    }
-                }
-            }
-        } else {
-            for (BlockPos iterPos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-                if (iterPos.closerThan(pos, f)) {
-                    if (replaceable.contains(levelIn.getBlockState(iterPos))) {
-                        levelIn.setBlockAndUpdate(iterPos, replacement);
-                    }
+    private static void transformArea(Level levelIn, BlockPos pos, Predicate<BlockState> replaceable, BlockState replacement, int radius, boolean requireAir) {
+
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+        BlockMutationQueue queue = getMutationQueue(levelIn, pos);
+        BiPredicate<ServerLevel, BlockPos> recheck = requireAir ? (level, checkPos) -> level.getBlockState(checkPos.above()).isAir() : null;
+
+        BlockScanner.scanSphere(levelIn, pos, radius, replaceable, (iterPos, state, distSqr) -> {
+            if (!requireAir || levelIn.getBlockState(above.setWithOffset(iterPos, Direction.UP)).isAir()) {
+                if (queue != null) {
+                    queue.enqueue(iterPos, state, replacement, recheck, null);
+                } else {
+                    levelIn.setBlockAndUpdate(iterPos, replacement);
                 }
             }
+            return true;
+        });
+        if (queue != null) {
+            queue.drain();
+        }
+    }
+
+    /**
+     * @return A fresh submission on the level's deferred block change queue, or null if changes should be applied immediately.
+     */
+    @Nullable
+    private static BlockMutationQueue getMutationQueue(Level levelIn, BlockPos origin) {
+
+        if (levelIn instanceof ServerLevel serverLevel && BlockMutationQueue.enabled()) {
+            return BlockMutationQueue.get(serverLevel).begin(origin);
         }
+        return null;
     }
 
     public static void transformGrass(Entity entity, Level levelIn, BlockPos pos, int radius) {
@@ -805,57 +804,42 @@ public class AreaUtils {
 
     public static void transformSignalAir(Entity entity, Level levelIn, BlockPos pos, int radius) {
 
-        Set<BlockState> replaceable = new ObjectOpenHashSet<>();
-        Collections.addAll(replaceable, AIR.defaultBlockState(), CAVE_AIR.defaultBlockState());
-        transformArea(entity, levelIn, pos, replaceable, SIGNAL_AIR.get().defaultBlockState(), radius, false);
+        transformArea(entity, levelIn, pos, REPLACEABLE_AIR, SIGNAL_AIR.get().defaultBlockState(), radius, false);
     }
 
     public static void transformGlowAir(Entity entity, Level levelIn, BlockPos pos, int radius) {
 
-        Set<BlockState> replaceable = new ObjectOpenHashSet<>();
-        Collections.addAll(replaceable, AIR.defaultBlockState(), CAVE_AIR.defaultBlockState());
-        transformArea(entity, levelIn, pos, replaceable, GLOW_AIR.get().defaultBlockState(), radius, false);
+        transformArea(entity, levelIn, pos, REPLACEABLE_AIR, GLOW_AIR.get().defaultBlockState(), radius, false);
     }
 
     public static void transformEnderAir(Entity entity, Level levelIn, BlockPos pos, int radius) {
 
-        Set<BlockState> replaceable = new ObjectOpenHashSet<>();
-        Collections.addAll(replaceable, AIR.defaultBlockState(), CAVE_AIR.defaultBlockState());
-        transformArea(entity, levelIn, pos, replaceable, ENDER_AIR.get().defaultBlockState(), radius, false);
+        transformArea(entity, levelIn, pos, REPLACEABLE_AIR, ENDER_AIR.get().defaultBlockState(), radius, false);
     }
 
     public static void zapNearbyGround(Entity entity, Level levelIn, BlockPos pos, int radius, double chance, int max) {
 
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
-        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
-        int count = 0;
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+        MutableInt count = new MutableInt();
 
-        for (BlockPos blockpos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            if (count >= max) {
-                return;
+        BlockScanner.scanSphere(levelIn, pos, radius, NOT_AIR, (iterPos, state, distSqr) -> {
+            if (count.intValue() >= max) {
+                return false;
             }
-            double distance = blockpos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                mutable.set(blockpos.getX(), blockpos.getY() + 1, blockpos.getZ());
-                BlockState blockstate1 = levelIn.getBlockState(mutable);
-                if (blockstate1.isAir()) {
-                    if (isValidLightningBoltPosition(levelIn, mutable, chance)) {
-                        levelIn.setBlockAndUpdate(mutable, LIGHTNING_AIR.get().defaultBlockState());
-                        ++count;
-                    }
-                }
+            above.setWithOffset(iterPos, Direction.UP);
+            if (levelIn.getBlockState(above).isAir() && isValidLightningBoltPosition(levelIn, above, iterPos, state, chance)) {
+                levelIn.setBlockAndUpdate(above, LIGHTNING_AIR.get().defaultBlockState());
+                count.increment();
             }
-        }
+            return true;
+        });
     }
 
     public static void growMushrooms(Entity entity, Level levelIn, BlockPos pos, int radius, int count) {
 
         float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
         float f2 = f * f;
-        int grow = 0;
+        MutableInt grow = new MutableInt();
         BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
 
         mutable.set(entity.blockPosition().above());
@@ -863,125 +847,88 @@ public class AreaUtils {
         if (blockstate1.isAir()) {
             if (isValidMushroomPosition(levelIn, entity.blockPosition(), 1.0)) {
                 levelIn.setBlockAndUpdate(mutable, levelIn.random.nextBoolean() ? BROWN_MUSHROOM.defaultBlockState() : RED_MUSHROOM.defaultBlockState());
-                ++grow;
+                grow.increment();
             }
         }
-        for (BlockPos iterPos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            if (grow >= count) {
-                return;
+        BlockScanner.scanSphere(levelIn, pos, f, AreaUtils::isMushroomSoil, (iterPos, state, distSqr) -> {
+            if (grow.intValue() >= count) {
+                return false;
             }
-            double distance = iterPos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                mutable.set(iterPos.getX(), iterPos.getY() + 1, iterPos.getZ());
-                blockstate1 = levelIn.getBlockState(mutable);
-                if (blockstate1.isAir()) {
-                    if (isValidMushroomPosition(levelIn, iterPos, 0.5 - (distance / f2))) {
-                        levelIn.setBlockAndUpdate(mutable, levelIn.random.nextBoolean() ? BROWN_MUSHROOM.defaultBlockState() : RED_MUSHROOM.defaultBlockState());
-                        ++grow;
-                    }
-                }
+            mutable.setWithOffset(iterPos, Direction.UP);
+            if (levelIn.getBlockState(mutable).isAir() && levelIn.random.nextDouble() < 0.5 - (distSqr / f2)) {
+                levelIn.setBlockAndUpdate(mutable, levelIn.random.nextBoolean() ? BROWN_MUSHROOM.defaultBlockState() : RED_MUSHROOM.defaultBlockState());
+                grow.increment();
             }
-        }
+            return true;
+        });
     }
 
     private static boolean isValidMushroomPosition(Level levelIn, BlockPos pos, double chance) {
 
-        Block block = levelIn.getBlockState(pos).getBlock();
-        return levelIn.random.nextDouble() < chance && (block == MYCELIUM || block == PODZOL);
+        return levelIn.random.nextDouble() < chance && isMushroomSoil(levelIn.getBlockState(pos));
     }
 
-    public static void growPlants(Entity entity, Level levelIn, BlockPos pos, int radius) {
+    private static boolean isMushroomSoil(BlockState state) {
 
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
+        Block block = state.getBlock();
+        return block == MYCELIUM || block == PODZOL;
+    }
 
-        BlockState state;
-        for (BlockPos iterPos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            double distance = iterPos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                state = levelIn.getBlockState(iterPos);
-                if (state.getBlock() instanceof BonemealableBlock) {
-                    BonemealableBlock growable = (BonemealableBlock) state.getBlock();
-                    if (growable.isValidBonemealTarget(levelIn, iterPos, state, levelIn.isClientSide)) {
-                        if (!levelIn.isClientSide) {
-                            if (growable.isBonemealSuccess(levelIn, levelIn.random, iterPos, state)) {
-                                // TODO: Remove try/catch when Mojang fixes base issue.
-                                try {
-                                    growable.performBonemeal((ServerLevel) levelIn, levelIn.random, iterPos, state);
-                                } catch (Exception e) {
-                                    // Vanilla issue causes bamboo to crash if grown close to world height
-                                    if (!(growable instanceof BambooBlock)) {
-                                        throw e;
-                                    }
-                                }
-                                // growable.performBonemeal((ServerLevel) levelIn, levelIn.rand, pos, state);
-                                // ++grow;
-                            }
-                        }
-                    }
-                }
-            }
+    public static void growPlants(Entity entity, Level levelIn, BlockPos pos, int radius) {
+
+        if (levelIn.isClientSide) {
+            return;
         }
+        BlockScanner.scanSphere(levelIn, pos, radius, AreaUtils::isBonemealable, (iterPos, state, distSqr) -> {
+            tryBonemeal((ServerLevel) levelIn, iterPos, state);
+            return true;
+        });
     }
 
     public static void growPlants(Entity entity, Level levelIn, BlockPos pos, int radius, int count) {
 
-        float f = (float) Math.min(HORZ_MAX, radius);
-        float v = (float) Math.min(VERT_MAX, radius);
-        float f2 = f * f;
-        int grow = 0;
+        if (levelIn.isClientSide) {
+            return;
+        }
+        ServerLevel level = (ServerLevel) levelIn;
+        MutableInt grow = new MutableInt();
 
         BlockState state = levelIn.getBlockState(entity.blockPosition());
-        if (state.getBlock() instanceof BonemealableBlock) {
-            BonemealableBlock growable = (BonemealableBlock) state.getBlock();
-            if (growable.isValidBonemealTarget(levelIn, pos, state, levelIn.isClientSide)) {
-                if (!levelIn.isClientSide) {
-                    if (growable.isBonemealSuccess(levelIn, levelIn.random, pos, state)) {
-                        // TODO: Remove try/catch when Mojang fixes base issue.
-                        try {
-                            growable.performBonemeal((ServerLevel) levelIn, levelIn.random, pos, state);
-                            ++grow;
-                        } catch (Exception e) {
-                            // Vanilla issue causes bamboo to crash if grown close to world height
-                            if (!(growable instanceof BambooBlock)) {
-                                throw e;
-                            }
-                        }
-                    }
-                }
-            }
+        if (isBonemealable(state) && tryBonemeal(level, pos, state)) {
+            grow.increment();
         }
-        for (BlockPos iterPos : BlockPos.betweenClosed(pos.offset(-f, -v, -f), pos.offset(f, v, f))) {
-            if (grow >= count) {
-                return;
+        BlockScanner.scanSphere(levelIn, pos, radius, AreaUtils::isBonemealable, (iterPos, iterState, distSqr) -> {
+            if (grow.intValue() >= count) {
+                return false;
             }
-            double distance = iterPos.distToCenterSqr(entity.position());
-            if (distance < f2) {
-                state = levelIn.getBlockState(iterPos);
-                if (state.getBlock() instanceof BonemealableBlock) {
-                    BonemealableBlock growable = (BonemealableBlock) state.getBlock();
-                    if (growable.isValidBonemealTarget(levelIn, iterPos, state, levelIn.isClientSide)) {
-                        if (!levelIn.isClientSide) {
-                            if (growable.isBonemealSuccess(levelIn, levelIn.random, iterPos, state)) {
-                                // TODO: Remove try/catch when Mojang fixes base issue.
-                                try {
-                                    growable.performBonemeal((ServerLevel) levelIn, levelIn.random, iterPos, state);
-                                    ++grow;
-                                } catch (Exception e) {
-                                    // Vanilla issue causes bamboo to crash if grown close to world height
-                                    if (!(growable instanceof BambooBlock)) {
-                                        throw e;
-                                    }
-                                }
-                                // growable.performBonemeal((ServerLevel) levelIn, levelIn.rand, pos, state);
-                                // ++grow;
-                            }
-                        }
-                    }
+            if (tryBonemeal(level, iterPos, iterState)) {
+                grow.increment();
+            }
+            return true;
+        });
+    }
+
+    private static boolean isBonemealable(BlockState state) {
+
+        return state.getBlock() instanceof BonemealableBlock;
+    }
+
+    private static boolean tryBonemeal(ServerLevel level, BlockPos pos, BlockState state) {
+
+        BonemealableBlock growable = (BonemealableBlock) state.getBlock();
+        if (growable.isValidBonemealTarget(level, pos, state, false) && growable.isBonemealSuccess(level, level.random, pos, state)) {
+            // TODO: Remove try/catch when Mojang fixes base issue.
+            try {
+                growable.performBonemeal(level, level.random, pos, state);
+                return true;
+            } catch (Exception e) {
+                // Vanilla issue causes bamboo to crash if grown close to world height
+                if (!(growable instanceof BambooBlock)) {
+                    throw e;
                 }
             }
         }
+        return false;
     }
     // endregion
 }
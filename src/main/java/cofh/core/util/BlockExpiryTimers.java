@@ -0,0 +1,420 @@
+package cofh.core.util;
+
+import cofh.lib.api.block.IExpiringBlock;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.minecraft.nbt.Tag.TAG_STRING;
+
+/**
+ * Per-level expiry tracking for temporary blocks ({@link IExpiringBlock}), saved with the level.
+ * <p>
+ * Timers live in a hierarchical timer wheel: 256 one-tick slots, then 64 slots of 256 ticks and 64 slots of 16384 ticks, with an overflow
+ * list beyond that. Scheduling and expiry are O(1); timers in the outer wheels are cascaded inwards as time reaches their slot. Expired
+ * positions are grouped by chunk section so that each section is visited once. Rescheduling a position replaces its previous timer, which
+ * is then dropped lazily when its slot comes up.
+ * <p>
+ * Like the block entity ticking this replaces, timers do not run while their chunk is unloaded: on unload the remaining time is parked
+ * per chunk and the timers resume when the chunk loads again. Timers read from disk start parked for the same reason.
+ */
+public class BlockExpiryTimers extends SavedData {
+
+    private static final String TAG_EXPIRY = "cofh:block_expiry";
+    private static final String TAG_TIME = "Time";
+    private static final String TAG_BLOCKS = "Blocks";
+    private static final String TAG_POS = "Pos";
+    private static final String TAG_TYPE = "Type";
+    private static final String TAG_REMAINING = "Remaining";
+
+    private static final int BITS_0 = 8;
+    private static final int BITS_1 = 6;
+    private static final int BITS_2 = 6;
+    private static final int SIZE_0 = 1 << BITS_0;
+    private static final int SIZE_1 = 1 << BITS_1;
+    private static final int SIZE_2 = 1 << BITS_2;
+    private static final long SPAN_1 = 1L << (BITS_0 + BITS_1);
+    private static final long SPAN_2 = 1L << (BITS_0 + BITS_1 + BITS_2);
+
+    // Delay before retrying timers which asked to be retried.
+    private static final int RETRY_EXPIRE = 20;
+
+    private final List<Timer>[] wheel0 = createWheel(SIZE_0);
+    private final List<Timer>[] wheel1 = createWheel(SIZE_1);
+    private final List<Timer>[] wheel2 = createWheel(SIZE_2);
+    private final List<Timer> overflow = new ArrayList<>();
+    private final Long2ObjectOpenHashMap<Timer> active = new Long2ObjectOpenHashMap<>();
+    // Chunk -> positions with an active timer, so a chunk's timers can be parked on unload.
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> activeByChunk = new Long2ObjectOpenHashMap<>();
+    // Chunk -> timers of unloaded chunks, with their remaining time.
+    private final Long2ObjectOpenHashMap<List<Parked>> parked = new Long2ObjectOpenHashMap<>();
+    // Set when read from disk; parked chunks that are already loaded are resumed on first access.
+    private boolean resumePending;
+
+    private long time;
+
+    public BlockExpiryTimers() {
+
+    }
+
+    public BlockExpiryTimers(CompoundTag nbt) {
+
+        time = nbt.getLong(TAG_TIME);
+        ListTag blockList = nbt.getList(TAG_BLOCKS, TAG_STRING);
+        Block[] blocks = new Block[blockList.size()];
+        for (int i = 0; i < blocks.length; ++i) {
+            blocks[i] = ForgeRegistries.BLOCKS.getValue(new ResourceLocation(blockList.getString(i)));
+        }
+        long[] positions = nbt.getLongArray(TAG_POS);
+        int[] types = nbt.getIntArray(TAG_TYPE);
+        int[] remaining = nbt.getIntArray(TAG_REMAINING);
+        for (int i = 0; i < Math.min(positions.length, Math.min(types.length, remaining.length)); ++i) {
+            int type = types[i];
+            if (type >= 0 && type < blocks.length && blocks[type] instanceof IExpiringBlock) {
+                park(positions[i], blocks[type], remaining[i]);
+            }
+        }
+        resumePending = true;
+    }
+
+    @Nullable
+    public static BlockExpiryTimers get(ServerLevel level) {
+
+        return resumeLoaded(level, level.getDataStorage().get(BlockExpiryTimers::new, TAG_EXPIRY));
+    }
+
+    public static BlockExpiryTimers getOrCreate(ServerLevel level) {
+
+        return resumeLoaded(level, level.getDataStorage().computeIfAbsent(BlockExpiryTimers::new, BlockExpiryTimers::new, TAG_EXPIRY));
+    }
+
+    private static BlockExpiryTimers resumeLoaded(ServerLevel level, @Nullable BlockExpiryTimers timers) {
+
+        if (timers != null && timers.resumePending) {
+            timers.resumePending = false;
+            for (long chunk : timers.parked.keySet().toLongArray()) {
+                if (level.getChunkSource().getChunkNow(ChunkPos.getX(chunk), ChunkPos.getZ(chunk)) != null) {
+                    timers.resume(chunk);
+                }
+            }
+        }
+        return timers;
+    }
+
+    /**
+     * Starts (or restarts) the expiry timer for the given position; the block there must still be the given block when the timer runs
+     * out, otherwise the timer is discarded.
+     */
+    public static void schedule(ServerLevel level, BlockPos pos, Block block, int duration) {
+
+        getOrCreate(level).schedule(pos.asLong(), block, duration);
+    }
+
+    /**
+     * Starts the expiry timer for the given position only if it has none.
+     */
+    public static void scheduleIfAbsent(ServerLevel level, BlockPos pos, Block block, int duration) {
+
+        BlockExpiryTimers timers = getOrCreate(level);
+        if (!timers.active.containsKey(pos.asLong())) {
+            timers.schedule(pos.asLong(), block, duration);
+        }
+    }
+
+    /**
+     * @return Ticks left for the position, or -1 if it has no timer.
+     */
+    public static int getRemaining(ServerLevel level, BlockPos pos) {
+
+        BlockExpiryTimers timers = get(level);
+        Timer timer = timers == null ? null : timers.active.get(pos.asLong());
+        return timer == null ? -1 : (int) Math.max(0, timer.deadline - timers.time);
+    }
+
+    /**
+     * Called at the end of each level tick.
+     */
+    public static void tick(ServerLevel level) {
+
+        BlockExpiryTimers timers = get(level);
+        if (timers != null) {
+            timers.advance(level);
+        }
+    }
+
+    /**
+     * Parks the timers of an unloading chunk, keeping their remaining time.
+     */
+    public static void onChunkUnload(ServerLevel level, ChunkPos chunkPos) {
+
+        BlockExpiryTimers timers = get(level);
+        if (timers != null) {
+            timers.suspend(chunkPos.toLong());
+        }
+    }
+
+    /**
+     * Resumes the parked timers of a chunk which has loaded again.
+     */
+    public static void onChunkLoad(ServerLevel level, ChunkPos chunkPos) {
+
+        BlockExpiryTimers timers = get(level);
+        if (timers != null) {
+            timers.resume(chunkPos.toLong());
+        }
+    }
+
+    public int size() {
+
+        return active.size() + parked.values().stream().mapToInt(List::size).sum();
+    }
+
+    // region WHEEL
+    private void schedule(long pos, Block block, int duration) {
+
+        if (!(block instanceof IExpiringBlock)) {
+            return;
+        }
+        Timer timer = new Timer(pos, block, time + Math.max(1, duration));
+        if (active.put(pos, timer) == null) {
+            activeByChunk.computeIfAbsent(chunkOf(pos), k -> new LongOpenHashSet()).add(pos);
+        }
+        insert(timer);
+        setDirty();
+    }
+
+    private void deactivate(long pos) {
+
+        if (active.remove(pos) == null) {
+            return;
+        }
+        long chunk = chunkOf(pos);
+        LongOpenHashSet positions = activeByChunk.get(chunk);
+        if (positions != null && positions.remove(pos) && positions.isEmpty()) {
+            activeByChunk.remove(chunk);
+        }
+    }
+
+    private void park(long pos, Block block, int remaining) {
+
+        parked.computeIfAbsent(chunkOf(pos), k -> new ArrayList<>()).add(new Parked(pos, block, Math.max(1, remaining)));
+    }
+
+    private void suspend(long chunk) {
+
+        LongOpenHashSet positions = activeByChunk.remove(chunk);
+        if (positions == null) {
+            return;
+        }
+        // Timers left in the wheel are dropped lazily, as they are no longer active.
+        for (long pos : positions) {
+            Timer timer = active.remove(pos);
+            if (timer != null) {
+                park(pos, timer.block, (int) Math.min(Integer.MAX_VALUE, timer.deadline - time));
+            }
+        }
+        setDirty();
+    }
+
+    private void resume(long chunk) {
+
+        List<Parked> timers = parked.remove(chunk);
+        if (timers == null) {
+            return;
+        }
+        for (Parked timer : timers) {
+            schedule(timer.pos(), timer.block(), timer.remaining());
+        }
+    }
+
+    private static long chunkOf(long pos) {
+
+        return ChunkPos.asLong(SectionPos.blockToSectionCoord(BlockPos.getX(pos)), SectionPos.blockToSectionCoord(BlockPos.getZ(pos)));
+    }
+
+    private void insert(Timer timer) {
+
+        long deadline = Math.max(timer.deadline, time + 1);
+        long delta = deadline - time;
+        if (delta < SIZE_0) {
+            wheel0[(int) (deadline & (SIZE_0 - 1))].add(timer);
+        } else if (delta < SPAN_1) {
+            wheel1[(int) ((deadline >> BITS_0) & (SIZE_1 - 1))].add(timer);
+        } else if (delta < SPAN_2) {
+            wheel2[(int) ((deadline >> (BITS_0 + BITS_1)) & (SIZE_2 - 1))].add(timer);
+        } else {
+            overflow.add(timer);
+        }
+    }
+
+    private void cascade(List<Timer> slot) {
+
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Timer> timers = new ArrayList<>(slot);
+        slot.clear();
+        for (Timer timer : timers) {
+            if (active.get(timer.pos) == timer) {
+                insert(timer);
+            }
+        }
+    }
+
+    private void advance(ServerLevel level) {
+
+        ++time;
+        int index0 = (int) (time & (SIZE_0 - 1));
+        if (index0 == 0) {
+            int index1 = (int) ((time >> BITS_0) & (SIZE_1 - 1));
+            if (index1 == 0) {
+                int index2 = (int) ((time >> (BITS_0 + BITS_1)) & (SIZE_2 - 1));
+                if (index2 == 0) {
+                    cascade(overflow);
+                }
+                cascade(wheel2[index2]);
+            }
+            cascade(wheel1[index1]);
+        }
+        List<Timer> slot = wheel0[index0];
+        if (!slot.isEmpty()) {
+            List<Timer> due = new ArrayList<>(slot);
+            slot.clear();
+            expire(level, due);
+        }
+    }
+
+    private void expire(ServerLevel level, List<Timer> due) {
+
+        // Group by chunk section, so each chunk is looked up once and block updates within a section happen together.
+        Long2ObjectOpenHashMap<List<Timer>> sections = new Long2ObjectOpenHashMap<>();
+        for (Timer timer : due) {
+            if (active.get(timer.pos) != timer) {
+                continue;
+            }
+            deactivate(timer.pos);
+            sections.computeIfAbsent(SectionPos.blockToSection(timer.pos), k -> new ArrayList<>()).add(timer);
+        }
+        if (sections.isEmpty()) {
+            return;
+        }
+        setDirty();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        for (Long2ObjectMap.Entry<List<Timer>> entry : sections.long2ObjectEntrySet()) {
+            long section = entry.getLongKey();
+            LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.x(section), SectionPos.z(section));
+            for (Timer timer : entry.getValue()) {
+                if (chunk == null) {
+                    // Came due while its chunk is not accessible; expire it as soon as the chunk loads.
+                    park(timer.pos, timer.block, 1);
+                    continue;
+                }
+                pos.set(timer.pos);
+                BlockState state = chunk.getBlockState(pos);
+                if (!state.is(timer.block)) {
+                    continue;
+                }
+                if (!((IExpiringBlock) timer.block).expire(level, pos.immutable(), state)) {
+                    schedule(timer.pos, timer.block, RETRY_EXPIRE);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings ("unchecked")
+    private static List<Timer>[] createWheel(int size) {
+
+        List<Timer>[] wheel = new List[size];
+        for (int i = 0; i < size; ++i) {
+            wheel[i] = new ArrayList<>();
+        }
+        return wheel;
+    }
+    // endregion
+
+    // region NBT
+    @Override
+    public CompoundTag save(CompoundTag nbt) {
+
+        Object2IntOpenHashMap<Block> palette = new Object2IntOpenHashMap<>();
+        palette.defaultReturnValue(-1);
+        ListTag blockList = new ListTag();
+        int size = size();
+        long[] positions = new long[size];
+        int[] types = new int[size];
+        int[] remaining = new int[size];
+        int i = 0;
+        for (Timer timer : active.values()) {
+            positions[i] = timer.pos;
+            types[i] = paletteIndex(palette, blockList, timer.block);
+            remaining[i] = (int) Math.max(1, Math.min(Integer.MAX_VALUE, timer.deadline - time));
+            ++i;
+        }
+        for (List<Parked> timers : parked.values()) {
+            for (Parked timer : timers) {
+                positions[i] = timer.pos();
+                types[i] = paletteIndex(palette, blockList, timer.block());
+                remaining[i] = timer.remaining();
+                ++i;
+            }
+        }
+        nbt.putLong(TAG_TIME, time);
+        nbt.put(TAG_BLOCKS, blockList);
+        nbt.putLongArray(TAG_POS, positions);
+        nbt.putIntArray(TAG_TYPE, types);
+        nbt.putIntArray(TAG_REMAINING, remaining);
+        return nbt;
+    }
+
+    private static int paletteIndex(Object2IntOpenHashMap<Block> palette, ListTag blockList, Block block) {
+
+        int type = palette.getInt(block);
+        if (type < 0) {
+            type = blockList.size();
+            palette.put(block, type);
+            blockList.add(StringTag.valueOf(String.valueOf(ForgeRegistries.BLOCKS.getKey(block))));
+        }
+        return type;
+    }
+    // endregion
+
+    // region TIMER
+    private static class Timer {
+
+        final long pos;
+        final Block block;
+        final long deadline;
+
+        Timer(long pos, Block block, long deadline) {
+
+            this.pos = pos;
+            this.block = block;
+            this.deadline = deadline;
+        }
+
+    }
+
+    private record Parked(long pos, Block block, int remaining) {
+
+    }
+    // endregion
+}
@@ -0,0 +1,282 @@
+package cofh.core.util;
+
+import cofh.core.config.CoreCommonConfig;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+/**
+ * Per-level queue of deferred block changes, applied within a per-tick budget.
+ * <p>
+ * Large-radius area effects enqueue their writes here instead of calling setBlockAndUpdate thousands of times in one tick.
+ * Writes are applied in submission order, and within a submission by distance from its origin, so effects still spread radially.
+ * A write is only applied if the position still holds the state observed when it was queued, and if its optional condition still
+ * holds when the write comes up; repeated writes to the same position are merged into the pending entry.
+ */
+public class BlockMutationQueue {
+
+    private static final Map<ServerLevel, BlockMutationQueue> QUEUES = new WeakHashMap<>();
+
+    private static final Comparator<Mutation> ORDER = Comparator.<Mutation>comparingLong(m -> m.batch).thenComparingInt(m -> m.distSqr).thenComparingLong(m -> m.seq);
+
+    private final ServerLevel level;
+    private final PriorityQueue<Mutation> queue = new PriorityQueue<>(ORDER);
+    private final Long2ObjectOpenHashMap<Mutation> pending = new Long2ObjectOpenHashMap<>();
+
+    private long batch;
+    private long seq;
+    private int originX;
+    private int originY;
+    private int originZ;
+
+    private long tickStamp = Long.MIN_VALUE;
+    private int appliedThisTick;
+    private long nanosThisTick;
+
+    // Metrics
+    private long totalQueued;
+    private long totalApplied;
+    private long totalMerged;
+    private long totalSkipped;
+    private int maxDepth;
+
+    protected BlockMutationQueue(ServerLevel level) {
+
+        this.level = level;
+    }
+
+    public static BlockMutationQueue get(ServerLevel level) {
+
+        return QUEUES.computeIfAbsent(level, BlockMutationQueue::new);
+    }
+
+    public static boolean enabled() {
+
+        return CoreCommonConfig.enableDeferredBlockChanges();
+    }
+
+    /**
+     * Called at the end of each level tick.
+     */
+    public static void tick(ServerLevel level) {
+
+        BlockMutationQueue queue = QUEUES.get(level);
+        if (queue != null) {
+            queue.drain();
+        }
+    }
+
+    /**
+     * Applies whatever is still queued for the level and drops its queue. Queued writes are not persisted, so they must be applied while
+     * the level can still be saved.
+     */
+    public static void unload(ServerLevel level) {
+
+        BlockMutationQueue queue = QUEUES.remove(level);
+        if (queue != null) {
+            queue.flush();
+        }
+    }
+
+    /**
+     * Applies every queued write in every level, ignoring the per-tick budget. Called when the server is stopping, before levels are saved.
+     */
+    public static void flushAll() {
+
+        // Copied, as applying a write may touch the queue map.
+        for (BlockMutationQueue queue : new ArrayList<>(QUEUES.values())) {
+            queue.flush();
+        }
+    }
+
+    /**
+     * Starts a new submission. All writes queued until the next call are ordered by their distance from this origin.
+     */
+    public BlockMutationQueue begin(BlockPos origin) {
+
+        ++batch;
+        originX = origin.getX();
+        originY = origin.getY();
+        originZ = origin.getZ();
+        return this;
+    }
+
+    public void enqueue(BlockPos pos, BlockState expected, BlockState state) {
+
+        enqueue(pos, expected, state, null);
+    }
+
+    /**
+     * Queues a write of the given state, applied only if the position still holds the expected state.
+     *
+     * @param after Optional callback run after the write has been applied.
+     */
+    public void enqueue(BlockPos pos, BlockState expected, BlockState state, @Nullable BiConsumer<ServerLevel, BlockPos> after) {
+
+        enqueue(pos, expected, state, null, after);
+    }
+
+    /**
+     * Queues a write of the given state, applied only if the position still holds the expected state and the condition still passes.
+     *
+     * @param condition Optional check re-run just before the write, for anything other than the position's own state which may have
+     *                  changed since it was queued (e.g. entities or neighboring blocks).
+     * @param after     Optional callback run after the write has been applied.
+     */
+    public void enqueue(BlockPos pos, BlockState expected, BlockState state, @Nullable BiPredicate<ServerLevel, BlockPos> condition, @Nullable BiConsumer<ServerLevel, BlockPos> after) {
+
+        long key = pos.asLong();
+        Mutation existing = pending.get(key);
+        if (existing != null) {
+            existing.state = state;
+            existing.condition = condition;
+            existing.after = after;
+            ++totalMerged;
+            return;
+        }
+        int dx = pos.getX() - originX;
+        int dy = pos.getY() - originY;
+        int dz = pos.getZ() - originZ;
+        Mutation mutation = new Mutation(key, expected, state, condition, after, batch, dx * dx + dy * dy + dz * dz, seq++);
+        pending.put(key, mutation);
+        queue.add(mutation);
+        ++totalQueued;
+        maxDepth = Math.max(maxDepth, queue.size());
+    }
+
+    /**
+     * Applies queued writes until this tick's budget is used up.
+     */
+    public void drain() {
+
+        if (queue.isEmpty()) {
+            return;
+        }
+        long gameTime = level.getGameTime();
+        if (gameTime != tickStamp) {
+            tickStamp = gameTime;
+            appliedThisTick = 0;
+            nanosThisTick = 0;
+        }
+        int maxChanges = CoreCommonConfig.blockChangesPerTick();
+        long maxNanos = CoreCommonConfig.blockChangeTimeBudget() * 1000L;
+        long start = System.nanoTime();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        while (!queue.isEmpty() && appliedThisTick < maxChanges) {
+            if (maxNanos > 0 && nanosThisTick + System.nanoTime() - start >= maxNanos) {
+                break;
+            }
+            apply(queue.poll(), pos);
+        }
+        nanosThisTick += System.nanoTime() - start;
+    }
+
+    /**
+     * Applies every queued write now, ignoring the budget.
+     */
+    public void flush() {
+
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        while (!queue.isEmpty()) {
+            apply(queue.poll(), pos);
+        }
+    }
+
+    private void apply(Mutation mutation, BlockPos.MutableBlockPos pos) {
+
+        pending.remove(mutation.pos);
+        pos.set(mutation.pos);
+        if (level.isLoaded(pos) && level.getBlockState(pos) == mutation.expected && (mutation.condition == null || mutation.condition.test(level, pos))) {
+            level.setBlockAndUpdate(pos, mutation.state);
+            if (mutation.after != null) {
+                mutation.after.accept(level, pos.immutable());
+            }
+            ++appliedThisTick;
+            ++totalApplied;
+        } else {
+            ++totalSkipped;
+        }
+    }
+
+    // region METRICS
+    public int getDepth() {
+
+        return queue.size();
+    }
+
+    public int getMaxDepth() {
+
+        return maxDepth;
+    }
+
+    public long getTotalQueued() {
+
+        return totalQueued;
+    }
+
+    public long getTotalApplied() {
+
+        return totalApplied;
+    }
+
+    public long getTotalMerged() {
+
+        return totalMerged;
+    }
+
+    public long getTotalSkipped() {
+
+        return totalSkipped;
+    }
+
+    public static int getTotalDepth() {
+
+        int depth = 0;
+        for (BlockMutationQueue queue : QUEUES.values()) {
+            depth += queue.getDepth();
+        }
+        return depth;
+    }
+    // endregion
+
+    // region MUTATION
+    private static class Mutation {
+
+        final long pos;
+        final BlockState expected;
+        BlockState state;
+        @Nullable
+        BiPredicate<ServerLevel, BlockPos> condition;
+        @Nullable
+        BiConsumer<ServerLevel, BlockPos> after;
+
+        final long batch;
+        final int distSqr;
+        final long seq;
+
+        Mutation(long pos, BlockState expected, BlockState state, @Nullable BiPredicate<ServerLevel, BlockPos> condition, @Nullable BiConsumer<ServerLevel, BlockPos> after, long batch, int distSqr, long seq) {
+
+            this.pos = pos;
+            this.expected = expected;
+            this.state = state;
+            this.condition = condition;
+            this.after = after;
+            this.batch = batch;
+            this.distSqr = distSqr;
+            this.seq = seq;
+        }
+
+    }
+    // endregion
+}
@@ -0,0 +1,242 @@
+package cofh.core.util;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.function.Predicate;
+
+import static cofh.core.util.AreaUtils.HORZ_MAX;
+import static cofh.core.util.AreaUtils.VERT_MAX;
+
+/**
+ * Shared sphere/cylinder block scan used by the {@link AreaUtils} transforms.
+ * <p>
+ * Shapes are precomputed as z-extent tables (per dy and dx) and cached by their squared radius, so no per-block distance math is
+ * needed. The scan walks chunk sections directly, reading states from the section palette, and skips any section whose palette
+ * cannot contain a state matching the filter (this includes all-air sections for filters that reject air).
+ */
+public final class BlockScanner {
+
+    private static final int MAX_LIMIT = HORZ_MAX * HORZ_MAX;
+
+    private static final Shape[] SPHERES = new Shape[MAX_LIMIT + 1];
+    private static final Shape[] DISCS = new Shape[MAX_LIMIT + 1];
+
+    public static final Predicate<BlockState> ANY = state -> true;
+
+    private BlockScanner() {
+
+    }
+
+    /**
+     * Scans every block strictly within the given radius of the origin block (clamped to {@link AreaUtils#HORZ_MAX} horizontally and
+     * {@link AreaUtils#VERT_MAX} vertically) whose state matches the filter.
+     *
+     * @return The number of positions handed to the action.
+     */
+    public static int scanSphere(Level level, BlockPos origin, float radius, Predicate<BlockState> filter, IScanAction action) {
+
+        return scan(level, origin, getSphere(radius), -VERT_MAX, VERT_MAX, filter, action);
+    }
+
+    /**
+     * Scans every block horizontally within the given radius of the origin block and between the given vertical offsets (inclusive).
+     *
+     * @return The number of positions handed to the action.
+     */
+    public static int scanCylinder(Level level, BlockPos origin, float radius, int minDy, int maxDy, Predicate<BlockState> filter, IScanAction action) {
+
+        return scan(level, origin, getDisc(radius), Math.max(minDy, -VERT_MAX), Math.min(maxDy, VERT_MAX), filter, action);
+    }
+
+    // region HELPERS
+    private static int scan(Level level, BlockPos origin, Shape shape, int minDy, int maxDy, Predicate<BlockState> filter, IScanAction action) {
+
+        if (shape.h < 0) {
+            return 0;
+        }
+        int ox = origin.getX();
+        int oy = origin.getY();
+        int oz = origin.getZ();
+        int minY = Math.max(oy + Math.max(minDy, -shape.v), level.getMinBuildHeight());
+        int maxY = Math.min(oy + Math.min(maxDy, shape.v), level.getMaxBuildHeight() - 1);
+        if (minY > maxY) {
+            return 0;
+        }
+        BlockPos.MutableBlockPos mutable = new BlockPos.MutableBlockPos();
+        int count = 0;
+
+        for (int cz = SectionPos.blockToSectionCoord(oz - shape.h); cz <= SectionPos.blockToSectionCoord(oz + shape.h); ++cz) {
+            int chunkMinZ = SectionPos.sectionToBlockCoord(cz);
+            for (int cx = SectionPos.blockToSectionCoord(ox - shape.h); cx <= SectionPos.blockToSectionCoord(ox + shape.h); ++cx) {
+                int chunkMinX = SectionPos.sectionToBlockCoord(cx);
+                int xStart = Math.max(ox - shape.h, chunkMinX);
+                int xEnd = Math.min(ox + shape.h, chunkMinX + 15);
+                LevelChunk chunk = level.getChunk(cx, cz);
+
+                for (int sy = SectionPos.blockToSectionCoord(minY); sy <= SectionPos.blockToSectionCoord(maxY); ++sy) {
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sy));
+                    if (!section.getStates().maybeHas(filter)) {
+                        continue;
+                    }
+                    int sectionMinY = SectionPos.sectionToBlockCoord(sy);
+                    int yStart = Math.max(minY, sectionMinY);
+                    int yEnd = Math.min(maxY, sectionMinY + 15);
+
+                    for (int y = yStart; y <= yEnd; ++y) {
+                        int dy = y - oy;
+                        for (int x = xStart; x <= xEnd; ++x) {
+                            int dx = x - ox;
+                            int ext = shape.extent(dy, dx);
+                            if (ext < 0) {
+                                continue;
+                            }
+                            int zStart = Math.max(oz - ext, chunkMinZ);
+                            int zEnd = Math.min(oz + ext, chunkMinZ + 15);
+                            for (int z = zStart; z <= zEnd; ++z) {
+                                BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+                                if (!filter.test(state)) {
+                                    continue;
+                                }
+                                int dz = z - oz;
+                                ++count;
+                                if (!action.accept(mutable.set(x, y, z), state, dx * dx + dy * dy + dz * dz)) {
+                                    return count;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Positions with integer offset distance d2 are "inside" a float radius r iff d2 < r * r, i.e. d2 <= ceil(r * r) - 1.
+     */
+    private static int limit(float radius) {
+
+        float r = Math.min(HORZ_MAX, radius);
+        if (r <= 0) {
+            return -1;
+        }
+        return Math.min(MAX_LIMIT, (int) Math.ceil(r * r) - 1);
+    }
+
+    private static Shape getSphere(float radius) {
+
+        int limit = limit(radius);
+        if (limit < 0) {
+            return Shape.EMPTY;
+        }
+        Shape shape = SPHERES[limit];
+        if (shape == null) {
+            shape = Shape.sphere(limit);
+            SPHERES[limit] = shape;
+        }
+        return shape;
+    }
+
+    private static Shape getDisc(float radius) {
+
+        int limit = limit(radius);
+        if (limit < 0) {
+            return Shape.EMPTY;
+        }
+        Shape shape = DISCS[limit];
+        if (shape == null) {
+            shape = Shape.disc(limit);
+            DISCS[limit] = shape;
+        }
+        return shape;
+    }
+    // endregion
+
+    // region SHAPE
+    private static class Shape {
+
+        static final Shape EMPTY = new Shape(-1, -1, false, new byte[0]);
+
+        final int h;
+        final int v;
+        final boolean column;
+        // Max |dz| for each (dy, dx), or -1 if the row is empty.
+        final byte[] extents;
+
+        Shape(int h, int v, boolean column, byte[] extents) {
+
+            this.h = h;
+            this.v = v;
+            this.column = column;
+            this.extents = extents;
+        }
+
+        int extent(int dy, int dx) {
+
+            int row = column ? 0 : dy + v;
+            return extents[row * (2 * h + 1) + dx + h];
+        }
+
+        static Shape sphere(int limit) {
+
+            int h = (int) Math.sqrt(limit);
+            int v = Math.min(h, VERT_MAX);
+            int w = 2 * h + 1;
+            byte[] extents = new byte[(2 * v + 1) * w];
+            for (int dy = -v; dy <= v; ++dy) {
+                for (int dx = -h; dx <= h; ++dx) {
+                    extents[(dy + v) * w + dx + h] = (byte) maxDz(limit - dy * dy - dx * dx);
+                }
+            }
+            return new Shape(h, v, false, extents);
+        }
+
+        static Shape disc(int limit) {
+
+            int h = (int) Math.sqrt(limit);
+            int w = 2 * h + 1;
+            byte[] extents = new byte[w];
+            for (int dx = -h; dx <= h; ++dx) {
+                extents[dx + h] = (byte) maxDz(limit - dx * dx);
+            }
+            return new Shape(h, VERT_MAX, true, extents);
+        }
+
+        static int maxDz(int remaining) {
+
+            if (remaining < 0) {
+                return -1;
+            }
+            int dz = (int) Math.sqrt(remaining);
+            while (dz * dz > remaining) {
+                --dz;
+            }
+            while ((dz + 1) * (dz + 1) <= remaining) {
+                ++dz;
+            }
+            return dz;
+        }
+
+    }
+    // endregion
+
+    // region INTERFACES
+    @FunctionalInterface
+    public interface IScanAction {
+
+        /**
+         * @param pos     Mutable position; call {@link BlockPos#immutable()} before storing it.
+         * @param state   The state at the position, as read from the chunk section.
+         * @param distSqr Squared distance (in blocks) from the origin.
+         * @return FALSE to stop the scan.
+         */
+        boolean accept(BlockPos.MutableBlockPos pos, BlockState state, int distSqr);
+
+    }
+    // endregion
+}
@@ -1,19 +1,34 @@
 package cofh.core.util.filter;
 
+import cofh.core.util.helpers.FilterHelper;
 import cofh.core.util.helpers.FluidHelper;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.item.alchemy.Potion;
+import net.minecraft.world.item.alchemy.PotionUtils;
 import net.minecraft.world.level.material.Fluid;
 import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.registries.ForgeRegistries;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
 import static cofh.lib.util.constants.NBTTags.*;
 import static net.minecraft.nbt.Tag.TAG_COMPOUND;
+import static net.minecraft.nbt.Tag.TAG_STRING;
 
 public class BaseFluidFilter implements IFilter, IFilterOptions {
 
@@ -21,6 +36,12 @@ public class BaseFluidFilter implements IFilter, IFilterOptions {
 
     protected List<FluidStack> fluids;
     protected Predicate<FluidStack> rules;
+    protected int rulesEpoch;
+
+    // Wildcard entries; these match regardless of NBT.
+    protected List<TagKey<Fluid>> tagRules = new ArrayList<>();
+    protected Set<String> modRules = new ObjectOpenHashSet<>();
+    protected Set<MobEffect> effectRules = new ReferenceOpenHashSet<>();
 
     protected boolean allowList = false;
     protected boolean checkNBT = false;
@@ -49,6 +70,42 @@ public class BaseFluidFilter implements IFilter, IFilterOptions {
         reset();
     }
 
+    public List<TagKey<Fluid>> getTagRules() {
+
+        return tagRules;
+    }
+
+    public void setTagRules(List<TagKey<Fluid>> tagRules) {
+
+        this.tagRules = tagRules;
+        reset();
+    }
+
+    public Set<String> getModRules() {
+
+        return modRules;
+    }
+
+    public void setModRules(Set<String> modRules) {
+
+        this.modRules = modRules;
+        reset();
+    }
+
+    /**
+     * Potion fluids match if their potion (or any custom effect) has one of these effects.
+     */
+    public Set<MobEffect> getEffectRules() {
+
+        return effectRules;
+    }
+
+    public void setEffectRules(Set<MobEffect> effectRules) {
+
+        this.effectRules = effectRules;
+        reset();
+    }
+
     public void reset() {
 
         this.rules = null;
@@ -57,27 +114,95 @@ public class BaseFluidFilter implements IFilter, IFilterOptions {
     @Override
     public Predicate<FluidStack> getFluidRules() {
 
-        if (rules == null) {
-            Set<Fluid> fluidSet = new ObjectOpenHashSet<>();
-            for (FluidStack fluid : fluids) {
-                fluidSet.add(fluid.getFluid());
-            }
-            rules = stack -> {
-                if (stack.isEmpty()) {
-                    return false;
+        if (rules == null || rulesEpoch != FilterHelper.getTagEpoch()) {
+            rules = compileRules();
+            rulesEpoch = FilterHelper.getTagEpoch();
+        }
+        return rules;
+    }
+
+    /**
+     * Compiles all rules into a single matcher. Fluid tag and mod id wildcards are expanded into one Fluid reference set, effect
+     * rules into the set of Potions carrying those effects, and (for NBT matching) listed fluids are indexed by Fluid and tag hash.
+     */
+    protected Predicate<FluidStack> compileRules() {
+
+        Set<Fluid> wildcards = FilterWildcards.expand(ForgeRegistries.FLUIDS, tagRules, modRules);
+        Set<Potion> potions = new ReferenceOpenHashSet<>();
+        if (!effectRules.isEmpty()) {
+            for (Potion potion : ForgeRegistries.POTIONS) {
+                for (MobEffectInstance effect : potion.getEffects()) {
+                    if (effectRules.contains(effect.getEffect())) {
+                        potions.add(potion);
+                        break;
+                    }
                 }
-                if (checkNBT) {
-                    for (FluidStack fluid : fluids) {
-                        if (FluidHelper.fluidsEqualWithTags(stack, fluid)) {
+            }
+        }
+        Set<MobEffect> effects = new ReferenceOpenHashSet<>(effectRules);
+        Set<Fluid> fluidSet = new ReferenceOpenHashSet<>();
+        Map<Fluid, Int2ObjectMap<List<FluidStack>>> tagIndex = new Reference2ObjectOpenHashMap<>();
+        for (FluidStack fluid : fluids) {
+            if (fluid.isEmpty()) {
+                continue;
+            }
+            fluidSet.add(fluid.getFluid());
+            tagIndex.computeIfAbsent(fluid.getFluid(), f -> new Int2ObjectOpenHashMap<>())
+                    .computeIfAbsent(tagHash(fluid), h -> new ArrayList<>(1))
+                    .add(fluid);
+        }
+        return stack -> {
+            if (stack.isEmpty()) {
+                return false;
+            }
+            Fluid fluid = stack.getFluid();
+            if (wildcards.contains(fluid)) {
+                return allowList;
+            }
+            if (!effects.isEmpty() && matchesEffect(stack, potions, effects)) {
+                return allowList;
+            }
+            if (!checkNBT) {
+                return allowList == fluidSet.contains(fluid);
+            }
+            Int2ObjectMap<List<FluidStack>> buckets = tagIndex.get(fluid);
+            if (buckets != null) {
+                List<FluidStack> candidates = buckets.get(tagHash(stack));
+                if (candidates != null) {
+                    for (FluidStack candidate : candidates) {
+                        if (FluidHelper.fluidsEqualWithTags(stack, candidate)) {
                             return allowList;
                         }
                     }
-                    return !allowList;
                 }
-                return allowList == fluidSet.contains(stack.getFluid());
-            };
+            }
+            return !allowList;
+        };
+    }
+
+    private static boolean matchesEffect(FluidStack stack, Set<Potion> potions, Set<MobEffect> effects) {
+
+        CompoundTag tag = stack.getTag();
+        if (tag == null) {
+            return false;
         }
-        return rules;
+        if (potions.contains(FluidHelper.getPotionFromFluid(stack))) {
+            return true;
+        }
+        if (tag.contains(PotionUtils.TAG_CUSTOM_POTION_EFFECTS)) {
+            for (MobEffectInstance effect : PotionUtils.getCustomEffects(tag)) {
+                if (effects.contains(effect.getEffect())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int tagHash(FluidStack stack) {
+
+        CompoundTag tag = stack.getTag();
+        return tag == null ? 0 : tag.hashCode();
     }
 
     @Override
@@ -99,8 +224,20 @@ public class BaseFluidFilter implements IFilter, IFilterOptions {
                 fluids.set(tank, FluidStack.loadFluidStackFromNBT(tankTag));
             }
         }
+        tagRules = FilterWildcards.readTags(subTag, ForgeRegistries.FLUIDS);
+        modRules = FilterWildcards.readMods(subTag);
+        effectRules = new ReferenceOpenHashSet<>();
+        ListTag effectList = subTag.getList(TAG_FILTER_EFFECTS, TAG_STRING);
+        for (int i = 0; i < effectList.size(); ++i) {
+            ResourceLocation id = ResourceLocation.tryParse(effectList.getString(i));
+            MobEffect effect = id == null ? null : ForgeRegistries.MOB_EFFECTS.getValue(id);
+            if (effect != null) {
+                effectRules.add(effect);
+            }
+        }
         allowList = subTag.getBoolean(TAG_FILTER_OPT_LIST);
         checkNBT = subTag.getBoolean(TAG_FILTER_OPT_NBT);
+        reset();
         return this;
     }
 
@@ -119,6 +256,18 @@ public class BaseFluidFilter implements IFilter, IFilterOptions {
         }
         subTag.put(TAG_TANK_INV, list);
 
+        FilterWildcards.write(subTag, tagRules, modRules);
+        if (!effectRules.isEmpty()) {
+            ListTag effectList = new ListTag();
+            for (MobEffect effect : effectRules) {
+                ResourceLocation id = ForgeRegistries.MOB_EFFECTS.getKey(effect);
+                if (id != null) {
+                    effectList.add(StringTag.valueOf(id.toString()));
+                }
+            }
+            subTag.put(TAG_FILTER_EFFECTS, effectList);
+        }
+
         subTag.putBoolean(TAG_FILTER_OPT_LIST, allowList);
         subTag.putBoolean(TAG_FILTER_OPT_NBT, checkNBT);
 
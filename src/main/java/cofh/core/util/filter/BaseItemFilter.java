@@ -1,14 +1,22 @@
 package cofh.core.util.filter;
 
+import cofh.core.util.helpers.FilterHelper;
 import cofh.core.util.helpers.ItemHelper;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.tags.TagKey;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.registries.ForgeRegistries;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 
@@ -21,6 +29,11 @@ public class BaseItemFilter implements IFilter, IFilterOptions {
 
     protected List<ItemStack> items;
     protected Predicate<ItemStack> rules;
+    protected int rulesEpoch;
+
+    // Wildcard entries; these match regardless of NBT.
+    protected List<TagKey<Item>> tagRules = new ArrayList<>();
+    protected Set<String> modRules = new ObjectOpenHashSet<>();
 
     protected boolean allowList = false;
     protected boolean checkNBT = false;
@@ -49,6 +62,28 @@ public class BaseItemFilter implements IFilter, IFilterOptions {
         reset();
     }
 
+    public List<TagKey<Item>> getTagRules() {
+
+        return tagRules;
+    }
+
+    public void setTagRules(List<TagKey<Item>> tagRules) {
+
+        this.tagRules = tagRules;
+        reset();
+    }
+
+    public Set<String> getModRules() {
+
+        return modRules;
+    }
+
+    public void setModRules(Set<String> modRules) {
+
+        this.modRules = modRules;
+        reset();
+    }
+
     public void reset() {
 
         this.rules = null;
@@ -57,27 +92,62 @@ public class BaseItemFilter implements IFilter, IFilterOptions {
     @Override
     public Predicate<ItemStack> getItemRules() {
 
-        if (rules == null) {
-            Set<Item> itemSet = new ObjectOpenHashSet<>();
-            for (ItemStack item : items) {
-                itemSet.add(item.getItem());
+        if (rules == null || rulesEpoch != FilterHelper.getTagEpoch()) {
+            rules = compileRules();
+            rulesEpoch = FilterHelper.getTagEpoch();
+        }
+        return rules;
+    }
+
+    /**
+     * Compiles the filter contents into an index: an Item set for plain matching, and an Item -> tag hash -> stacks map for NBT
+     * matching (tagless stacks land in the 0 bucket). Item tag and mod id wildcards are expanded into a single Item set up front, so
+     * a test is O(1) regardless of the size of the filter.
+     */
+    protected Predicate<ItemStack> compileRules() {
+
+        Set<Item> wildcards = FilterWildcards.expand(ForgeRegistries.ITEMS, tagRules, modRules);
+        Set<Item> itemSet = new ReferenceOpenHashSet<>();
+        Map<Item, Int2ObjectMap<List<ItemStack>>> tagIndex = new Reference2ObjectOpenHashMap<>();
+        for (ItemStack item : items) {
+            if (item.isEmpty()) {
+                continue;
             }
-            rules = stack -> {
-                if (stack.isEmpty()) {
-                    return false;
-                }
-                if (checkNBT) {
-                    for (ItemStack item : items) {
-                        if (ItemHelper.itemsEqualWithTags(stack, item)) {
+            itemSet.add(item.getItem());
+            tagIndex.computeIfAbsent(item.getItem(), i -> new Int2ObjectOpenHashMap<>())
+                    .computeIfAbsent(tagHash(item), h -> new ArrayList<>(1))
+                    .add(item);
+        }
+        return stack -> {
+            if (stack.isEmpty()) {
+                return false;
+            }
+            Item item = stack.getItem();
+            if (wildcards.contains(item)) {
+                return allowList;
+            }
+            if (!checkNBT) {
+                return allowList == itemSet.contains(item);
+            }
+            Int2ObjectMap<List<ItemStack>> buckets = tagIndex.get(item);
+            if (buckets != null) {
+                List<ItemStack> candidates = buckets.get(tagHash(stack));
+                if (candidates != null) {
+                    for (ItemStack candidate : candidates) {
+                        if (ItemHelper.itemsEqualWithTags(stack, candidate)) {
                             return allowList;
                         }
                     }
-                    return !allowList;
                 }
-                return allowList == itemSet.contains(stack.getItem());
-            };
-        }
-        return rules;
+            }
+            return !allowList;
+        };
+    }
+
+    private static int tagHash(ItemStack stack) {
+
+        CompoundTag tag = stack.getTag();
+        return tag == null ? 0 : tag.hashCode();
     }
 
     @Override
@@ -99,8 +169,11 @@ public class BaseItemFilter implements IFilter, IFilterOptions {
                 items.set(slot, ItemStack.of(slotTag));
             }
         }
+        tagRules = FilterWildcards.readTags(subTag, ForgeRegistries.ITEMS);
+        modRules = FilterWildcards.readMods(subTag);
         allowList = subTag.getBoolean(TAG_FILTER_OPT_LIST);
         checkNBT = subTag.getBoolean(TAG_FILTER_OPT_NBT);
+        reset();
         return this;
     }
 
@@ -122,6 +195,8 @@ public class BaseItemFilter implements IFilter, IFilterOptions {
         }
         subTag.put(TAG_ITEM_INV, list);
 
+        FilterWildcards.write(subTag, tagRules, modRules);
+
         subTag.putBoolean(TAG_FILTER_OPT_LIST, allowList);
         subTag.putBoolean(TAG_FILTER_OPT_NBT, checkNBT);
 
@@ -0,0 +1,97 @@
+package cofh.core.util.filter;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.StringTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraftforge.registries.IForgeRegistry;
+import net.minecraftforge.registries.tags.ITagManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static cofh.lib.util.constants.NBTTags.TAG_FILTER_MODS;
+import static cofh.lib.util.constants.NBTTags.TAG_FILTER_TAGS;
+import static net.minecraft.nbt.Tag.TAG_STRING;
+
+/**
+ * Tag and mod id wildcard rules shared by the item and fluid filters: NBT storage, and expansion into the set of registry entries they
+ * match.
+ */
+public final class FilterWildcards {
+
+    private FilterWildcards() {
+
+    }
+
+    /**
+     * Expands tag and mod id rules into a reference set of every matching registry entry.
+     */
+    public static <T> Set<T> expand(IForgeRegistry<T> registry, List<TagKey<T>> tagRules, Set<String> modRules) {
+
+        Set<T> wildcards = new ReferenceOpenHashSet<>();
+        ITagManager<T> tags = registry.tags();
+        if (tags != null) {
+            for (TagKey<T> tag : tagRules) {
+                tags.getTag(tag).forEach(wildcards::add);
+            }
+        }
+        if (!modRules.isEmpty()) {
+            for (Map.Entry<ResourceKey<T>, T> entry : registry.getEntries()) {
+                if (modRules.contains(entry.getKey().location().getNamespace())) {
+                    wildcards.add(entry.getValue());
+                }
+            }
+        }
+        return wildcards;
+    }
+
+    // region NBT
+    public static <T> List<TagKey<T>> readTags(CompoundTag subTag, IForgeRegistry<T> registry) {
+
+        List<TagKey<T>> tagRules = new ArrayList<>();
+        ListTag tagList = subTag.getList(TAG_FILTER_TAGS, TAG_STRING);
+        for (int i = 0; i < tagList.size(); ++i) {
+            ResourceLocation id = ResourceLocation.tryParse(tagList.getString(i));
+            if (id != null) {
+                tagRules.add(TagKey.create(registry.getRegistryKey(), id));
+            }
+        }
+        return tagRules;
+    }
+
+    public static Set<String> readMods(CompoundTag subTag) {
+
+        Set<String> modRules = new ObjectOpenHashSet<>();
+        ListTag modList = subTag.getList(TAG_FILTER_MODS, TAG_STRING);
+        for (int i = 0; i < modList.size(); ++i) {
+            modRules.add(modList.getString(i));
+        }
+        return modRules;
+    }
+
+    public static <T> void write(CompoundTag subTag, List<TagKey<T>> tagRules, Set<String> modRules) {
+
+        if (!tagRules.isEmpty()) {
+            ListTag tagList = new ListTag();
+            for (TagKey<T> tag : tagRules) {
+                tagList.add(StringTag.valueOf(tag.location().toString()));
+            }
+            subTag.put(TAG_FILTER_TAGS, tagList);
+        }
+        if (!modRules.isEmpty()) {
+            ListTag modList = new ListTag();
+            for (String mod : modRules) {
+                modList.add(StringTag.valueOf(mod));
+            }
+            subTag.put(TAG_FILTER_MODS, modList);
+        }
+    }
+    // endregion
+}
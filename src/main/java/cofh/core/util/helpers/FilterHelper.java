@@ -17,10 +17,25 @@ import static cofh.lib.util.constants.NBTTags.TAG_FILTER_TYPE;
 
 public final class FilterHelper {
 
+    private static int tagEpoch;
+
     private FilterHelper() {
 
     }
 
+    /**
+     * Incremented whenever tags are (re)loaded; compiled filter rules which expand tags are rebuilt when this changes.
+     */
+    public static int getTagEpoch() {
+
+        return tagEpoch;
+    }
+
+    public static void onTagsUpdated() {
+
+        ++tagEpoch;
+    }
+
     public static boolean hasFilter(ItemStack stack) {
 
         return !getFilterType(stack).isEmpty();
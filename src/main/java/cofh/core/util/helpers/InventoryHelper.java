@@ -1,6 +1,7 @@
 package cofh.core.util.helpers;
 
 import cofh.lib.inventory.ItemStorageCoFH;
+import cofh.lib.inventory.SimpleItemHandler;
 import cofh.lib.inventory.container.slot.SlotFalseCopy;
 import cofh.lib.util.helpers.BlockHelper;
 import net.minecraft.core.Direction;
@@ -90,7 +91,13 @@ public final class InventoryHelper {
 
     public static ItemStack insertStackIntoInventory(IItemHandler handler, ItemStack stack, boolean simulate, boolean forceEmptySlot) {
 
-        return forceEmptySlot ? ItemHandlerHelper.insertItem(handler, stack, simulate) : ItemHandlerHelper.insertItemStacked(handler, stack, simulate);
+        if (forceEmptySlot) {
+            return ItemHandlerHelper.insertItem(handler, stack, simulate);
+        }
+        if (handler instanceof SimpleItemHandler simpleHandler) {
+            return simpleHandler.insertItemStacked(stack, simulate);
+        }
+        return ItemHandlerHelper.insertItemStacked(handler, stack, simulate);
     }
 
     public static boolean mergeItemStack(List<Slot> slots, ItemStack stack, int startIndex, int endIndex, boolean reverseDirection) {
@@ -171,6 +178,9 @@ public final class InventoryHelper {
             if (handler == EmptyHandler.INSTANCE) {
                 return false;
             }
+            if (handler instanceof SimpleItemHandler simpleHandler) {
+                return simpleHandler.transferTo(slot, amount, e -> true).hasMoved();
+            }
             int initialAmount = amount;
             for (int i = 0; i < handler.getSlots() && amount > 0; ++i) {
                 ItemStack query = handler.extractItem(i, amount, true);
@@ -199,8 +209,12 @@ public final class InventoryHelper {
         Direction opposite = side.getOpposite();
 
         if (hasItemHandlerCap(adjTile, opposite)) {
+            IItemHandler handler = getItemHandlerCap(adjTile, opposite);
+            if (handler instanceof SimpleItemHandler simpleHandler) {
+                return simpleHandler.receiveFrom(slot, amount) > 0;
+            }
             // OPTIMIZATION: This is used instead of addToInventory because prechecks have already happened.
-            ItemStack inserted = insertStackIntoInventory(getItemHandlerCap(adjTile, opposite), initialStack, false);
+            ItemStack inserted = insertStackIntoInventory(handler, initialStack, false);
             if (inserted.getCount() >= initialStack.getCount()) {
                 return false;
             }
@@ -29,6 +29,7 @@ import net.minecraftforge.client.extensions.common.IClientFluidTypeExtensions;
 import net.minecraftforge.fluids.FluidStack;
 import org.lwjgl.opengl.GL11;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 /**
@@ -163,19 +164,12 @@ public final class RenderHelper {
         tesselator().end();
     }
 
+    /**
+     * Tiles the sprite over the area in 16x16 pieces. All pieces go into a single buffer and are drawn with one call.
+     */
     public static void drawTiledTexture(int x, int y, TextureAtlasSprite icon, int width, int height) {
 
-        int drawHeight;
-        int drawWidth;
-
-        for (int i = 0; i < width; i += 16) {
-            for (int j = 0; j < height; j += 16) {
-                drawWidth = Math.min(width - i, 16);
-                drawHeight = Math.min(height - j, 16);
-                drawScaledTexturedModalRectFromSprite(x + i, y + j, icon, drawWidth, drawHeight);
-            }
-        }
-        resetShaderColor();
+        drawTiledTexture(null, x, y, icon, width, height);
     }
 
     public static void drawScaledTexturedModalRectFromSprite(int x, int y, TextureAtlasSprite icon, int width, int height) {
@@ -273,18 +267,22 @@ public final class RenderHelper {
         tesselator().end();
     }
 
-    public static void drawTiledTexture(PoseStack matrixStack, int x, int y, TextureAtlasSprite icon, int width, int height) {
+    public static void drawTiledTexture(@Nullable PoseStack matrixStack, int x, int y, TextureAtlasSprite icon, int width, int height) {
 
-        int drawHeight;
-        int drawWidth;
+        if (icon == null || width <= 0 || height <= 0) {
+            resetShaderColor();
+            return;
+        }
+        Matrix4f matrix = matrixStack == null ? null : matrixStack.last().pose();
 
+        BufferBuilder buffer = tesselator().getBuilder();
+        buffer.begin(VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_TEX);
         for (int i = 0; i < width; i += 16) {
             for (int j = 0; j < height; j += 16) {
-                drawWidth = Math.min(width - i, 16);
-                drawHeight = Math.min(height - j, 16);
-                drawScaledTexturedModalRectFromSprite(matrixStack, x + i, y + j, icon, drawWidth, drawHeight);
+                putSpriteQuad(buffer, matrix, x + i, y + j, icon, Math.min(width - i, 16), Math.min(height - j, 16));
             }
         }
+        tesselator().end();
         resetShaderColor();
     }
 
@@ -312,6 +310,29 @@ public final class RenderHelper {
         tesselator().end();
     }
 
+    /**
+     * Adds one sprite-scaled quad (as drawn by drawScaledTexturedModalRectFromSprite) to a POSITION_TEX buffer which is already building.
+     */
+    private static void putSpriteQuad(BufferBuilder buffer, @Nullable Matrix4f matrix, int x, int y, TextureAtlasSprite icon, int width, int height) {
+
+        float minU = icon.getU0();
+        float minV = icon.getV0();
+        float u = minU + (icon.getU1() - minU) * width / 16F;
+        float v = minV + (icon.getV1() - minV) * height / 16F;
+
+        if (matrix == null) {
+            buffer.vertex(x, y + height, 0).uv(minU, v).endVertex();
+            buffer.vertex(x + width, y + height, 0).uv(u, v).endVertex();
+            buffer.vertex(x + width, y, 0).uv(u, minV).endVertex();
+            buffer.vertex(x, y, 0).uv(minU, minV).endVertex();
+        } else {
+            buffer.vertex(matrix, x, y + height, 0).uv(minU, v).endVertex();
+            buffer.vertex(matrix, x + width, y + height, 0).uv(u, v).endVertex();
+            buffer.vertex(matrix, x + width, y, 0).uv(u, minV).endVertex();
+            buffer.vertex(matrix, x, y, 0).uv(minU, minV).endVertex();
+        }
+    }
+
     public static void drawStencil(PoseStack matrixStack, int xStart, int yStart, int xEnd, int yEnd, int flag) {
 
         RenderSystem.disableTexture();
@@ -732,21 +753,22 @@ public final class RenderHelper {
         //float rad = 0.57735F * diagRatio;
         //float h = 0.5F * (float) Math.sqrt(lenSqr - rad * rad);
         float h = 0.1666667F * height;
+        float[] ring = unitRing(6);
 
-        Vector4f u = new Vector4f(0, 3 * h, 0, 1);
-        Vector4f l = new Vector4f(0, -3 * h, 0, 1);
-        Vector4f[] v = new Vector4f[8];
-        for (int i = 0; i < 6; ++i) {
-            v[i] = new Vector4f(radius * MathHelper.sin(i * 1.0472F), h, radius * MathHelper.cos(i * 1.0472F), 1);
-            h = -h;
-        }
-        v[6] = v[0];
-        v[7] = v[1];
+        Vector4f u = SCRATCH_U;
+        Vector4f l = SCRATCH_L;
+        Vector4f[] v = scratchRing(6);
+        u.set(0, 3 * h, 0, 1);
+        l.set(0, -3 * h, 0, 1);
         u.transform(pose);
         l.transform(pose);
         for (int i = 0; i < 6; ++i) {
+            v[i].set(radius * ring[i << 1], h, radius * ring[(i << 1) + 1], 1);
             v[i].transform(pose);
+            h = -h;
         }
+        v[6].set(v[0].x(), v[0].y(), v[0].z(), 1);
+        v[7].set(v[1].x(), v[1].y(), v[1].z(), 1);
 
         for (int i = 0; i < 6; i += 2) {
             Vector4f v0 = v[i];
@@ -788,19 +810,20 @@ public final class RenderHelper {
         Matrix4f pose = last.pose();
         Matrix3f norm = last.normal();
 
-        Vector4f u = new Vector4f(0, height * 0.5F, 0, 1);
-        Vector4f l = new Vector4f(0, height * -0.5F, 0, 1);
-        Vector4f[] v = new Vector4f[baseEdges + 1];
-        float angle = MathHelper.F_TAU / baseEdges;
-        for (int i = 0; i < baseEdges; ++i) {
-            v[i] = new Vector4f(radius * MathHelper.sin(i * angle), 0, radius * MathHelper.cos(i * angle), 1);
-        }
-        v[baseEdges] = v[0];
+        float[] ring = unitRing(baseEdges);
+
+        Vector4f u = SCRATCH_U;
+        Vector4f l = SCRATCH_L;
+        Vector4f[] v = scratchRing(baseEdges);
+        u.set(0, height * 0.5F, 0, 1);
+        l.set(0, height * -0.5F, 0, 1);
         u.transform(pose);
         l.transform(pose);
         for (int i = 0; i < baseEdges; ++i) {
+            v[i].set(radius * ring[i << 1], 0, radius * ring[(i << 1) + 1], 1);
             v[i].transform(pose);
         }
+        v[baseEdges].set(v[0].x(), v[0].y(), v[0].z(), 1);
 
         for (int i = 0; i < baseEdges; ++i) {
             Vector4f v0 = v[i];
@@ -816,6 +839,42 @@ public final class RenderHelper {
             consumer.vertex(l.x(), l.y(), l.z()).color(r, g, b, a).uv(1, 0).overlayCoords(OverlayTexture.NO_OVERLAY).uv2(packedLight).normal(norm, 0, 1, 0).endVertex();
         }
     }
+
+    // Unit circle points (sin, cos pairs) for polyhedron bases, and scratch vectors for their transformed corners. Geometry is only
+    // built on the render thread, so the scratch space is shared rather than allocated per shape.
+    private static final float[][] UNIT_RINGS = new float[33][];
+    private static final Vector4f SCRATCH_U = new Vector4f();
+    private static final Vector4f SCRATCH_L = new Vector4f();
+    private static Vector4f[] scratchRing = new Vector4f[0];
+
+    private static float[] unitRing(int edges) {
+
+        float[] ring = edges < UNIT_RINGS.length ? UNIT_RINGS[edges] : null;
+        if (ring == null) {
+            ring = new float[edges << 1];
+            float angle = MathHelper.F_TAU / edges;
+            for (int i = 0; i < edges; ++i) {
+                ring[i << 1] = MathHelper.sin(i * angle);
+                ring[(i << 1) + 1] = MathHelper.cos(i * angle);
+            }
+            if (edges < UNIT_RINGS.length) {
+                UNIT_RINGS[edges] = ring;
+            }
+        }
+        return ring;
+    }
+
+    private static Vector4f[] scratchRing(int edges) {
+
+        if (scratchRing.length < edges + 2) {
+            Vector4f[] ring = new Vector4f[edges + 2];
+            for (int i = 0; i < ring.length; ++i) {
+                ring[i] = new Vector4f();
+            }
+            scratchRing = ring;
+        }
+        return scratchRing;
+    }
     // endregion
 
 }
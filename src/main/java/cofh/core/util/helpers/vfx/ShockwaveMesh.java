@@ -0,0 +1,257 @@
+package cofh.core.util.helpers.vfx;
+
+import cofh.core.util.helpers.RenderHelper;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.math.Matrix3f;
+import com.mojang.math.Matrix4f;
+import com.mojang.math.Vector3f;
+import com.mojang.math.Vector4f;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.block.BlockRenderDispatcher;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.RenderShape;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.client.model.data.ModelData;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Block geometry for a shockwave, tessellated once per ring.
+ * <p>
+ * The first time a ring is drawn, the models of its surface blocks are rendered into a captured vertex list (with lighting baked in, as
+ * {@link VFXHelper#renderShockwave} would); every later frame only replays those vertices into the buffer source under the ring's
+ * vertical offset, skipping model lookup, face culling and lighting. Replaying into the shared buffer source keeps the blocks in the
+ * same batches as the rest of the frame.
+ */
+public class ShockwaveMesh {
+
+    private static final Ring EMPTY = new Ring(new RenderType[0], new int[0][]);
+
+    private final Level level;
+    private final BlockPos origin;
+    private Ring[] rings = new Ring[0];
+
+    private final Vector4f pos = new Vector4f();
+    private final Vector3f normal = new Vector3f();
+
+    public ShockwaveMesh(Level level, BlockPos origin) {
+
+        this.level = level;
+        this.origin = origin.immutable();
+    }
+
+    /**
+     * Same parameters and result as {@link VFXHelper#renderShockwave(PoseStack, MultiBufferSource, Level, BlockPos, float, float, float)}.
+     */
+    public void render(PoseStack stack, MultiBufferSource buffer, float time, float diameter, float heightScale) {
+
+        float radius = diameter * 0.5F;
+        float invRadius = 1 / radius;
+        ShockwaveOffsets offsets = ShockwaveOffsets.get(radius);
+
+        for (int ring = offsets.firstRing(Math.min(time - 5, radius)), end = offsets.firstRing(Math.min(time, radius)); ring < end; ++ring) {
+            Ring mesh = getRing(offsets, ring);
+            if (mesh == EMPTY) {
+                continue;
+            }
+            float dist = offsets.ringDistance(ring);
+            float progress = time - dist;
+            double height = heightScale * 0.16 * (radius - dist * 0.5F) * progress * (5 - progress) * invRadius;
+
+            stack.pushPose();
+            stack.translate(0, height, 0);
+            draw(mesh, stack.last(), buffer);
+            stack.popPose();
+        }
+    }
+
+    /**
+     * Drops all captured geometry.
+     */
+    public void release() {
+
+        rings = new Ring[0];
+    }
+
+    // region HELPERS
+    private Ring getRing(ShockwaveOffsets offsets, int ring) {
+
+        if (ring >= rings.length) {
+            rings = Arrays.copyOf(rings, Math.max(offsets.ringCount(), ring + 1));
+        }
+        Ring mesh = rings[ring];
+        if (mesh == null) {
+            mesh = capture(offsets, ring);
+            rings[ring] = mesh;
+        }
+        return mesh;
+    }
+
+    private Ring capture(ShockwaveOffsets offsets, int ring) {
+
+        ShockwaveSurface surface = ShockwaveSurface.get(level, origin);
+        BlockRenderDispatcher renderer = RenderHelper.renderBlock();
+        PoseStack stack = new PoseStack();
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+        List<RenderType> types = new ArrayList<>(1);
+        List<Capture> captures = new ArrayList<>(1);
+
+        for (int i = offsets.ringStart(ring); i < offsets.ringEnd(ring); ++i) {
+            if (!surface.resolve(offsets, i)) {
+                continue;
+            }
+            BlockState state = surface.state(i);
+            if (state.getRenderShape() != RenderShape.MODEL) {
+                continue;
+            }
+            stack.pushPose();
+            stack.translate(offsets.dx(i), surface.dy(i), offsets.dz(i));
+            stack.scale(1.01F, 1.01F, 1.01F);
+            above.setWithOffset(surface.pos(), 0, 1, 0);
+
+            for (RenderType type : renderer.getBlockModel(state).getRenderTypes(state, level.random, ModelData.EMPTY)) {
+                int index = types.indexOf(type);
+                if (index < 0) {
+                    index = types.size();
+                    types.add(type);
+                    captures.add(new Capture());
+                }
+                renderer.renderBatched(state, above, level, stack, captures.get(index), false, level.random, ModelData.EMPTY, type);
+            }
+            stack.popPose();
+        }
+        if (types.isEmpty()) {
+            return EMPTY;
+        }
+        int[][] vertices = new int[captures.size()][];
+        for (int i = 0; i < vertices.length; ++i) {
+            vertices[i] = captures.get(i).data.toIntArray();
+        }
+        return new Ring(types.toArray(new RenderType[0]), vertices);
+    }
+
+    private void draw(Ring ring, PoseStack.Pose pose, MultiBufferSource buffer) {
+
+        Matrix4f matrix = pose.pose();
+        Matrix3f normalMatrix = pose.normal();
+
+        for (int t = 0; t < ring.types.length; ++t) {
+            VertexConsumer consumer = buffer.getBuffer(ring.types[t]);
+            int[] data = ring.vertices[t];
+            for (int i = 0; i < data.length; i += Capture.STRIDE) {
+                pos.set(Float.intBitsToFloat(data[i]), Float.intBitsToFloat(data[i + 1]), Float.intBitsToFloat(data[i + 2]), 1.0F);
+                pos.transform(matrix);
+                int packedNormal = data[i + 7];
+                normal.set((byte) packedNormal / 127.0F, (byte) (packedNormal >> 8) / 127.0F, (byte) (packedNormal >> 16) / 127.0F);
+                normal.transform(normalMatrix);
+                int color = data[i + 3];
+                consumer.vertex(pos.x(), pos.y(), pos.z(),
+                        (color >> 16 & 0xFF) / 255.0F, (color >> 8 & 0xFF) / 255.0F, (color & 0xFF) / 255.0F, (color >>> 24) / 255.0F,
+                        Float.intBitsToFloat(data[i + 4]), Float.intBitsToFloat(data[i + 5]), OverlayTexture.NO_OVERLAY, data[i + 6],
+                        normal.x(), normal.y(), normal.z());
+            }
+        }
+    }
+    // endregion
+
+    // region RING
+    private record Ring(RenderType[] types, int[][] vertices) {
+
+    }
+
+    /**
+     * Records block vertices as (x, y, z, ARGB, u, v, light, normal) int tuples.
+     */
+    private static class Capture implements VertexConsumer {
+
+        static final int STRIDE = 8;
+
+        final IntArrayList data = new IntArrayList();
+
+        float x;
+        float y;
+        float z;
+        int color = 0xFFFFFFFF;
+        float u;
+        float v;
+        int light;
+        int normal;
+
+        @Override
+        public VertexConsumer vertex(double x, double y, double z) {
+
+            this.x = (float) x;
+            this.y = (float) y;
+            this.z = (float) z;
+            return this;
+        }
+
+        @Override
+        public VertexConsumer color(int r, int g, int b, int a) {
+
+            color = (a & 0xFF) << 24 | (r & 0xFF) << 16 | (g & 0xFF) << 8 | (b & 0xFF);
+            return this;
+        }
+
+        @Override
+        public VertexConsumer uv(float u, float v) {
+
+            this.u = u;
+            this.v = v;
+            return this;
+        }
+
+        @Override
+        public VertexConsumer overlayCoords(int u, int v) {
+
+            return this;
+        }
+
+        @Override
+        public VertexConsumer uv2(int u, int v) {
+
+            light = (u & 0xFFFF) | (v & 0xFFFF) << 16;
+            return this;
+        }
+
+        @Override
+        public VertexConsumer normal(float x, float y, float z) {
+
+            normal = ((byte) (x * 127.0F) & 0xFF) | ((byte) (y * 127.0F) & 0xFF) << 8 | ((byte) (z * 127.0F) & 0xFF) << 16;
+            return this;
+        }
+
+        @Override
+        public void endVertex() {
+
+            data.add(Float.floatToRawIntBits(x));
+            data.add(Float.floatToRawIntBits(y));
+            data.add(Float.floatToRawIntBits(z));
+            data.add(color);
+            data.add(Float.floatToRawIntBits(u));
+            data.add(Float.floatToRawIntBits(v));
+            data.add(light);
+            data.add(normal);
+            color = 0xFFFFFFFF;
+        }
+
+        @Override
+        public void defaultColor(int r, int g, int b, int a) {
+
+        }
+
+        @Override
+        public void unsetDefaultColor() {
+
+        }
+
+    }
+    // endregion
+}
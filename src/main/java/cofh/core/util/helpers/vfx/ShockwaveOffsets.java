@@ -0,0 +1,185 @@
+package cofh.core.util.helpers.vfx;
+
+import cofh.lib.util.helpers.MathHelper;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ForwardingSortedMap;
+import com.google.common.collect.ImmutableSortedMap;
+import net.minecraft.core.Vec3i;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Horizontal block offsets around an origin, grouped into rings of equal distance and sorted outward.
+ * <p>
+ * Offsets are packed into a single int array (dx in the high 16 bits, dz in the low 16 bits), with a start index per ring. The table
+ * grows on demand; since rings are sorted by distance and offsets within a ring keep their scan order, an offset's index is the same in
+ * every table size, so indices may be cached across growth.
+ */
+public final class ShockwaveOffsets {
+
+    public static final int MAX_RADIUS = 128;
+
+    private static volatile ShockwaveOffsets current = new ShockwaveOffsets(16);
+
+    public final int maxRadius;
+    private final float[] ringDist;
+    private final int[] ringStart;
+    private final int[] offsets;
+
+    private ShockwaveOffsets(int maxRadius) {
+
+        this.maxRadius = maxRadius;
+        int maxSqr = maxRadius * maxRadius;
+
+        // Counting sort by squared distance.
+        int[] counts = new int[maxSqr + 1];
+        int rings = 0;
+        for (int x = -maxRadius; x <= maxRadius; ++x) {
+            for (int z = -maxRadius; z <= maxRadius; ++z) {
+                int distSqr = x * x + z * z;
+                if (distSqr < maxSqr && counts[distSqr]++ == 0) {
+                    ++rings;
+                }
+            }
+        }
+        ringDist = new float[rings];
+        ringStart = new int[rings + 1];
+        int[] next = new int[maxSqr];
+        int ring = 0;
+        int index = 0;
+        for (int distSqr = 0; distSqr < maxSqr; ++distSqr) {
+            if (counts[distSqr] > 0) {
+                ringDist[ring] = MathHelper.sqrt(distSqr);
+                ringStart[ring++] = index;
+                next[distSqr] = index;
+                index += counts[distSqr];
+            }
+        }
+        ringStart[rings] = index;
+        offsets = new int[index];
+        for (int x = -maxRadius; x <= maxRadius; ++x) {
+            for (int z = -maxRadius; z <= maxRadius; ++z) {
+                int distSqr = x * x + z * z;
+                if (distSqr < maxSqr) {
+                    offsets[next[distSqr]++] = (x << 16) | (z & 0xFFFF);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a table covering every offset strictly within the given radius (clamped to {@link #MAX_RADIUS}).
+     */
+    public static ShockwaveOffsets get(float radius) {
+
+        ShockwaveOffsets table = current;
+        if (radius > table.maxRadius && table.maxRadius < MAX_RADIUS) {
+            synchronized (ShockwaveOffsets.class) {
+                table = current;
+                if (radius > table.maxRadius && table.maxRadius < MAX_RADIUS) {
+                    table = new ShockwaveOffsets(Math.min(MAX_RADIUS, Math.max(MathHelper.ceil(radius), table.maxRadius * 2)));
+                    current = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Index of the first ring at or beyond the given distance; rings [firstRing(a), firstRing(b)) are those with a <= distance < b.
+     */
+    public int firstRing(float dist) {
+
+        int lo = 0;
+        int hi = ringDist.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ringDist[mid] < dist) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public int ringCount() {
+
+        return ringDist.length;
+    }
+
+    public float ringDistance(int ring) {
+
+        return ringDist[ring];
+    }
+
+    public int ringStart(int ring) {
+
+        return ringStart[ring];
+    }
+
+    public int ringEnd(int ring) {
+
+        return ringStart[ring + 1];
+    }
+
+    public int size() {
+
+        return offsets.length;
+    }
+
+    public int dx(int index) {
+
+        return offsets[index] >> 16;
+    }
+
+    public int dz(int index) {
+
+        return (short) offsets[index];
+    }
+
+    // region LEGACY
+    /**
+     * The old {@code VFXHelper.SHOCKWAVE_OFFSETS} layout (ring distance to per-offset functions of y) for radius 16. Built on first access.
+     */
+    static SortedMap<Float, List<Function<Integer, Vec3i>>> legacyMap() {
+
+        return LegacyMap.INSTANCE;
+    }
+
+    private static final class LegacyMap extends ForwardingSortedMap<Float, List<Function<Integer, Vec3i>>> {
+
+        static final LegacyMap INSTANCE = new LegacyMap();
+
+        private final Supplier<SortedMap<Float, List<Function<Integer, Vec3i>>>> map = Suppliers.memoize(LegacyMap::build);
+
+        @Override
+        protected SortedMap<Float, List<Function<Integer, Vec3i>>> delegate() {
+
+            return map.get();
+        }
+
+        private static SortedMap<Float, List<Function<Integer, Vec3i>>> build() {
+
+            ShockwaveOffsets table = get(16);
+            ImmutableSortedMap.Builder<Float, List<Function<Integer, Vec3i>>> builder = ImmutableSortedMap.naturalOrder();
+            for (int ring = 0; ring < table.firstRing(16); ++ring) {
+                List<Function<Integer, Vec3i>> list = new ArrayList<>(table.ringEnd(ring) - table.ringStart(ring));
+                for (int i = table.ringStart(ring); i < table.ringEnd(ring); ++i) {
+                    int dx = table.dx(i);
+                    int dz = table.dz(i);
+                    list.add(y -> new Vec3i(dx, y, dz));
+                }
+                builder.put(table.ringDistance(ring), list);
+            }
+            return builder.build();
+        }
+
+    }
+    // endregion
+
+}
@@ -0,0 +1,150 @@
+package cofh.core.util.helpers.vfx;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Client-side record of which block (if any) a shockwave lifts at each {@link ShockwaveOffsets} index around an origin.
+ * <p>
+ * The shockwave entity (destroy particles) and the shockwave particle (block rendering) both look for the same surface block at the same
+ * offsets; each offset is resolved once, by whichever asks first, and shared. Surfaces which have not been used for a couple of seconds
+ * are dropped.
+ */
+public final class ShockwaveSurface {
+
+    private static final int EXPIRY_TICKS = 40;
+
+    private static final byte UNRESOLVED = 0;
+    private static final byte NONE = 1;
+    // Resolved offsets store dy + 3 (dy is -1, 0 or 1).
+    private static final byte Y_BIAS = 3;
+
+    private static final Long2ObjectOpenHashMap<ShockwaveSurface> SURFACES = new Long2ObjectOpenHashMap<>();
+    @Nullable
+    private static Level surfaceLevel;
+    private static long lastPrune;
+
+    private final Level level;
+    private final BlockPos origin;
+    private byte[] dy = new byte[0];
+    private BlockState[] states = new BlockState[0];
+    private long lastUsed;
+
+    private final BlockPos.MutableBlockPos scratch = new BlockPos.MutableBlockPos();
+    private final BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+
+    private ShockwaveSurface(Level level, BlockPos origin) {
+
+        this.level = level;
+        this.origin = origin.immutable();
+    }
+
+    public static ShockwaveSurface get(Level level, BlockPos origin) {
+
+        long time = level.getGameTime();
+        if (level != surfaceLevel) {
+            SURFACES.clear();
+            surfaceLevel = level;
+        } else if (time != lastPrune) {
+            prune(time);
+        }
+        lastPrune = time;
+        ShockwaveSurface surface = SURFACES.get(origin.asLong());
+        if (surface == null) {
+            surface = new ShockwaveSurface(level, origin);
+            SURFACES.put(origin.asLong(), surface);
+        }
+        surface.lastUsed = time;
+        return surface;
+    }
+
+    public static void remove(BlockPos origin) {
+
+        SURFACES.remove(origin.asLong());
+    }
+
+    public static void clear() {
+
+        SURFACES.clear();
+        surfaceLevel = null;
+    }
+
+    private static void prune(long time) {
+
+        for (Iterator<Long2ObjectMap.Entry<ShockwaveSurface>> iter = SURFACES.long2ObjectEntrySet().fastIterator(); iter.hasNext(); ) {
+            if (time - iter.next().getValue().lastUsed > EXPIRY_TICKS) {
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Default filter: a full, solid, non-tile block with open space above it.
+     */
+    public static boolean isSurface(Level level, BlockPos pos, BlockState state, BlockPos.MutableBlockPos above) {
+
+        if (state.isAir() || !state.isRedstoneConductor(level, pos) || !state.isCollisionShapeFullBlock(level, pos) || state.hasBlockEntity()) {
+            return false;
+        }
+        above.setWithOffset(pos, 0, 1, 0);
+        return !level.getBlockState(above).isCollisionShapeFullBlock(level, above);
+    }
+
+    /**
+     * @return TRUE if a surface block was found at the offset; its position and state are then available from {@link #pos} and
+     * {@link #state}.
+     */
+    public boolean resolve(ShockwaveOffsets offsets, int index) {
+
+        if (index >= dy.length) {
+            int size = Math.max(offsets.size(), index + 1);
+            dy = Arrays.copyOf(dy, size);
+            states = Arrays.copyOf(states, size);
+        }
+        byte value = dy[index];
+        if (value == UNRESOLVED) {
+            value = NONE;
+            for (int y = 1; y >= -1; --y) {
+                scratch.setWithOffset(origin, offsets.dx(index), y, offsets.dz(index));
+                BlockState state = level.getBlockState(scratch);
+                if (isSurface(level, scratch, state, above)) {
+                    value = (byte) (y + Y_BIAS);
+                    states[index] = state;
+                    break;
+                }
+            }
+            dy[index] = value;
+        }
+        if (value == NONE) {
+            return false;
+        }
+        scratch.setWithOffset(origin, offsets.dx(index), value - Y_BIAS, offsets.dz(index));
+        return true;
+    }
+
+    /**
+     * Position of the last offset successfully resolved. Mutable; call {@link BlockPos#immutable()} before storing it.
+     */
+    public BlockPos.MutableBlockPos pos() {
+
+        return scratch;
+    }
+
+    public int dy(int index) {
+
+        return dy[index] - Y_BIAS;
+    }
+
+    public BlockState state(int index) {
+
+        return states[index];
+    }
+
+}
@@ -2,18 +2,15 @@ package cofh.core.util.helpers.vfx;
 
 import cofh.core.util.helpers.RenderHelper;
 import cofh.lib.util.helpers.MathHelper;
-import com.google.common.collect.ImmutableSortedMap;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 import com.mojang.math.*;
-import it.unimi.dsi.fastutil.floats.Float2ObjectOpenHashMap;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderType;
 import net.minecraft.client.renderer.block.BlockRenderDispatcher;
 import net.minecraft.client.renderer.texture.OverlayTexture;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
 import net.minecraft.core.Vec3i;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.RenderShape;
@@ -114,6 +111,24 @@ public final class VFXHelper {
         interpolateCap(nodes[nodes.length - 2], nodes[nodes.length - 1]).renderEnd(normal, consumer, packedLight, color, 0, 0.5F, 1.0F, 1.0F);
     }
 
+    /**
+     * Emits the same two vertices as {@link VFXNode#renderStart}, for callers that do not want to allocate a node every frame.
+     */
+    public static void renderNodeStart(Matrix3f normal, VertexConsumer builder, int packedLight, Color col, float xp, float xn, float yp, float yn, float z, float u0, float v0, float u1, float v1) {
+
+        builder.vertex(xp, yp, z).color(col.r, col.g, col.b, col.a).uv(u0, v0).overlayCoords(OverlayTexture.NO_OVERLAY).uv2(packedLight).normal(normal, 0, 1, 0).endVertex();
+        builder.vertex(xn, yn, z).color(col.r, col.g, col.b, col.a).uv(u1, v0).overlayCoords(OverlayTexture.NO_OVERLAY).uv2(packedLight).normal(normal, 0, 1, 0).endVertex();
+    }
+
+    /**
+     * Emits the same two vertices as {@link VFXNode#renderEnd}, for callers that do not want to allocate a node every frame.
+     */
+    public static void renderNodeEnd(Matrix3f normal, VertexConsumer builder, int packedLight, Color col, float xp, float xn, float yp, float yn, float z, float u0, float v0, float u1, float v1) {
+
+        builder.vertex(xn, yn, z).color(col.r, col.g, col.b, col.a).uv(u1, v1).overlayCoords(OverlayTexture.NO_OVERLAY).uv2(packedLight).normal(normal, 0, 1, 0).endVertex();
+        builder.vertex(xp, yp, z).color(col.r, col.g, col.b, col.a).uv(u0, v1).overlayCoords(OverlayTexture.NO_OVERLAY).uv2(packedLight).normal(normal, 0, 1, 0).endVertex();
+    }
+
     public static Vec2 axialPerp(Vector4f start, Vector4f end, float width) {
 
         float x = -start.x();
@@ -306,7 +321,12 @@ public final class VFXHelper {
     // endregion
 
     // region SHOCKWAVE
-    public static final SortedMap<Float, List<Function<Integer, Vec3i>>> SHOCKWAVE_OFFSETS = getOffsets(16);
+
+    /**
+     * @deprecated Use {@link ShockwaveOffsets}; this view is built from it on first access.
+     */
+    @Deprecated
+    public static final SortedMap<Float, List<Function<Integer, Vec3i>>> SHOCKWAVE_OFFSETS = ShockwaveOffsets.legacyMap();
 
     /**
      * Renders a block shockwave that radially propagates from the origin.
@@ -314,7 +334,7 @@ public final class VFXHelper {
      * @param origin      Center of the shockwave.
      * @param time        Travels outward 1 block per unit time. Blocks take 5 units to complete their trajectory.
      *                    Scale this value based on how fast you want the animation to play.
-     * @param diameter    The maximum diameter of the shockwave. Hard limit of 32.
+     * @param diameter    The maximum diameter of the shockwave. Hard limit of 256.
      * @param heightScale Adjusts how high the blocks travel.
      * @param canRender   Predicate for filtering which blocks are to be rendered.
      */
@@ -323,28 +343,20 @@ public final class VFXHelper {
         BlockRenderDispatcher renderer = RenderHelper.renderBlock();
         float radius = diameter * 0.5F;
         float invRadius = 1 / radius;
-        SortedMap<Float, List<Function<Integer, Vec3i>>> blocks = SHOCKWAVE_OFFSETS.subMap(Math.min(time - 5, radius), Math.min(time, radius));
-        for (Float dist : blocks.keySet()) {
+        ShockwaveOffsets offsets = ShockwaveOffsets.get(radius);
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+
+        for (int ring = offsets.firstRing(Math.min(time - 5, radius)), end = offsets.firstRing(Math.min(time, radius)); ring < end; ++ring) {
+            float dist = offsets.ringDistance(ring);
             float progress = time - dist;
             double height = heightScale * 0.16 * (radius - dist * 0.5F) * progress * (5 - progress) * invRadius;
-            for (Function<Integer, Vec3i> offsetFunc : blocks.get(dist)) {
+            for (int i = offsets.ringStart(ring); i < offsets.ringEnd(ring); ++i) {
                 for (int y = 1; y >= -1; --y) {
-                    Vec3i offset = offsetFunc.apply(y);
-                    BlockPos pos = origin.offset(offset);
+                    pos.setWithOffset(origin, offsets.dx(i), y, offsets.dz(i));
                     BlockState state = level.getBlockState(pos);
                     if (canRender.test(pos, state)) {
-                        if (state.getRenderShape() == RenderShape.MODEL) {
-                            stack.pushPose();
-                            stack.translate(offset.getX(), height + y, offset.getZ());
-                            stack.scale(1.01F, 1.01F, 1.01F);
-
-                            // ModelData modelData = renderer.getBlockModel(state).getModelData(level, pos, state, ModelData.EMPTY);
-
-                            for (RenderType type : renderer.getBlockModel(state).getRenderTypes(state, level.random, ModelData.EMPTY)) {
-                                renderer.renderBatched(state, pos.relative(Direction.UP), level, stack, buffer.getBuffer(type), false, level.random, ModelData.EMPTY, type);
-                            }
-                            stack.popPose();
-                        }
+                        renderShockwaveBlock(stack, buffer, renderer, level, state, pos, above, offsets.dx(i), height + y, offsets.dz(i));
                         break;
                     }
                 }
@@ -352,49 +364,46 @@ public final class VFXHelper {
         }
     }
 
+    /**
+     * Renders a block shockwave using the default surface filter. Surface blocks are shared with the {@link cofh.core.entity.Shockwave}
+     * at the same origin (see {@link ShockwaveSurface}).
+     */
     public static void renderShockwave(PoseStack stack, MultiBufferSource buffer, Level world, BlockPos origin, float time, float diameter, float heightScale) {
 
-        renderShockwave(stack, buffer, world, origin, time, diameter, heightScale, (pos, state) ->
-                !state.isAir() && state.isRedstoneConductor(world, pos) &&
-                        state.isCollisionShapeFullBlock(world, pos) && !state.hasBlockEntity() &&
-                        !world.getBlockState(pos.above()).isCollisionShapeFullBlock(world, pos.above()));
-    }
-
-    private static SortedMap<Float, List<Function<Integer, Vec3i>>> getOffsets(int maxRadius) {
+        BlockRenderDispatcher renderer = RenderHelper.renderBlock();
+        float radius = diameter * 0.5F;
+        float invRadius = 1 / radius;
+        ShockwaveOffsets offsets = ShockwaveOffsets.get(radius);
+        ShockwaveSurface surface = ShockwaveSurface.get(world, origin);
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
 
-        Map<Float, List<Function<Integer, Vec3i>>> blocks = new Float2ObjectOpenHashMap<>();
-        float maxSqr = maxRadius * maxRadius;
-        for (int x = -maxRadius; x <= maxRadius; ++x) {
-            for (int z = -maxRadius; z <= maxRadius; ++z) {
-                int distSqr = x * x + z * z;
-                if (distSqr < maxSqr) {
-                    float dist = MathHelper.sqrt(distSqr);
-                    final int fx = x;
-                    final int fz = z;
-                    blocks.computeIfAbsent(dist, d -> new ArrayList<>()).add(y -> new Vec3i(fx, y, fz));
+        for (int ring = offsets.firstRing(Math.min(time - 5, radius)), end = offsets.firstRing(Math.min(time, radius)); ring < end; ++ring) {
+            float dist = offsets.ringDistance(ring);
+            float progress = time - dist;
+            double height = heightScale * 0.16 * (radius - dist * 0.5F) * progress * (5 - progress) * invRadius;
+            for (int i = offsets.ringStart(ring); i < offsets.ringEnd(ring); ++i) {
+                if (surface.resolve(offsets, i)) {
+                    renderShockwaveBlock(stack, buffer, renderer, world, surface.state(i), surface.pos(), above, offsets.dx(i), height + surface.dy(i), offsets.dz(i));
                 }
             }
         }
-        return ImmutableSortedMap.copyOf(blocks);
     }
 
-    //private static void addReflections(List<int[]> list, int x, int z) {
-    //
-    //    list.add(y -> new V);
-    //    list.add(new int[]{-x, -z});
-    //    if (z != 0) {
-    //        list.add(new int[]{-x, z});
-    //        list.add(new int[]{x, -z});
-    //    }
-    //    if (x != 0 && x != z) {
-    //        list.add(new int[]{z, x});
-    //        list.add(new int[]{-z, -x});
-    //        if (z != 0) {
-    //            list.add(new int[]{-z, x});
-    //            list.add(new int[]{z, -x});
-    //        }
-    //    }
-    //}
+    private static void renderShockwaveBlock(PoseStack stack, MultiBufferSource buffer, BlockRenderDispatcher renderer, Level level, BlockState state, BlockPos pos, BlockPos.MutableBlockPos above, double dx, double dy, double dz) {
+
+        if (state.getRenderShape() != RenderShape.MODEL) {
+            return;
+        }
+        stack.pushPose();
+        stack.translate(dx, dy, dz);
+        stack.scale(1.01F, 1.01F, 1.01F);
+        above.setWithOffset(pos, 0, 1, 0);
+
+        for (RenderType type : renderer.getBlockModel(state).getRenderTypes(state, level.random, ModelData.EMPTY)) {
+            renderer.renderBatched(state, above, level, stack, buffer.getBuffer(type), false, level.random, ModelData.EMPTY, type);
+        }
+        stack.popPose();
+    }
     // endregion
 
     // region ELECTRICITY
@@ -732,8 +741,7 @@ public final class VFXHelper {
 
         public VFXNode renderStart(Matrix3f normal, VertexConsumer builder, int packedLight, Color col, float u0, float v0, float u1, float v1) {
 
-            builder.vertex(xp, yp, z).color(col.r, col.g, col.b, col.a).uv(u0, v0).overlayCoords(OverlayTexture.NO_OVERLAY).uv2(packedLight).normal(normal, 0, 1, 0).endVertex();
-            builder.vertex(xn, yn, z).color(col.r, col.g, col.b, col.a).uv(u1, v0).overlayCoords(OverlayTexture.NO_OVERLAY).uv2(packedLight).normal(normal, 0, 1, 0).endVertex();
+            renderNodeStart(normal, builder, packedLight, col, xp, xn, yp, yn, z, u0, v0, u1, v1);
             return this;
         }
 
@@ -744,8 +752,7 @@ public final class VFXHelper {
 
         public VFXNode renderEnd(Matrix3f normal, VertexConsumer builder, int packedLight, Color col, float u0, float v0, float u1, float v1) {
 
-            builder.vertex(xn, yn, z).color(col.r, col.g, col.b, col.a).uv(u1, v1).overlayCoords(OverlayTexture.NO_OVERLAY).uv2(packedLight).normal(normal, 0, 1, 0).endVertex();
-            builder.vertex(xp, yp, z).color(col.r, col.g, col.b, col.a).uv(u0, v1).overlayCoords(OverlayTexture.NO_OVERLAY).uv2(packedLight).normal(normal, 0, 1, 0).endVertex();
+            renderNodeEnd(normal, builder, packedLight, col, xp, xn, yp, yn, z, u0, v0, u1, v1);
             return this;
         }
 
@@ -0,0 +1,25 @@
+package cofh.lib.api.block;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Implemented by temporary blocks which revert after a set time. Expiry is tracked per level rather than by a ticking tile.
+ */
+public interface IExpiringBlock {
+
+    /**
+     * Lifetime, in ticks, of a newly placed block.
+     */
+    int getDuration(RandomSource random);
+
+    /**
+     * Called on the server once the block's lifetime has run out.
+     *
+     * @return FALSE to retry a little later instead.
+     */
+    boolean expire(ServerLevel level, BlockPos pos, BlockState state);
+
+}
@@ -4,6 +4,15 @@ import net.minecraft.network.FriendlyByteBuf;
 
 public interface IPacketHandlerTile extends ITileLocation {
 
+    /**
+     * If TRUE, state and GUI packets are delta encoded per player: only the parts of the payload which changed since the last send are
+     * transmitted, and nothing is sent if the payload is unchanged. The client always receives the full payload in its handle methods.
+     */
+    default boolean useDeltaPackets() {
+
+        return false;
+    }
+
     // CONFIG
     default FriendlyByteBuf getConfigPacket(FriendlyByteBuf buffer) {
 
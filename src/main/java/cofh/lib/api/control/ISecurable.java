@@ -62,7 +62,7 @@ public interface ISecurable {
                 case PRIVATE:
                     return ownerID.equals(otherID);
                 case FRIENDS:
-                    return ownerID.equals(otherID) || entity instanceof ServerPlayer player && SocialUtils.isFriendOrSelf(owner, player);
+                    return ownerID.equals(otherID) || entity instanceof ServerPlayer player && SocialUtils.isFriend(player.server, ownerID, otherID);
                 case TEAM:
                     if (ownerID.equals(otherID)) {
                         return true;
@@ -22,6 +22,17 @@ public class EmptyItemStorage extends ItemStorageCoFH {
 
     }
 
+    @Override
+    public int getSpaceFor(ItemStack stack) {
+
+        return 0;
+    }
+
+    @Override
+    public void receive(ItemStack stack, int amount) {
+
+    }
+
     // region NBT
     @Override
     public ItemStorageCoFH read(CompoundTag nbt) {
@@ -26,6 +26,24 @@ public class IOItemHandler extends SimpleItemHandler {
         this.allowExtract = allowExtract;
     }
 
+    @Override
+    protected boolean canExtract() {
+
+        return allowExtract.get();
+    }
+
+    @Override
+    protected boolean isDirectCapable() {
+
+        return getClass() == IOItemHandler.class;
+    }
+
+    @Override
+    protected boolean canReceiveDirect() {
+
+        return isDirectCapable() && allowInsert.get();
+    }
+
     @Nonnull
     @Override
     public ItemStack insertItem(int slot, @Nonnull ItemStack stack, boolean simulate) {
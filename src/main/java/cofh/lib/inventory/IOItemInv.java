@@ -37,6 +37,7 @@ public class IOItemInv extends SimpleItemInv {
             return;
         }
         slots.add(slot);
+        invalidateIndex();
         switch (group) {
             case INTERNAL:
                 internalSlots.add(slot);
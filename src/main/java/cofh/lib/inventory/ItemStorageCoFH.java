@@ -8,6 +8,9 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.items.IItemHandler;
 
 import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -35,6 +38,11 @@ public class ItemStorageCoFH implements IItemHandler, IItemStackHolder, IResourc
     protected ItemStack item = ItemStack.EMPTY;
     protected int capacity;
 
+    // Handlers which index this slot; notified whenever its contents or capacity change.
+    protected List<SimpleItemHandler> listeners = Collections.emptyList();
+    // Incremented on every change; lets serialized copies of this slot be reused while it is unchanged.
+    protected int version;
+
     public ItemStorageCoFH() {
 
         this(DEFAULT_VALIDATOR);
@@ -68,6 +76,7 @@ public class ItemStorageCoFH implements IItemHandler, IItemStackHolder, IResourc
     public ItemStorageCoFH setCapacity(int capacity) {
 
         this.capacity = capacity;
+        onContentsChanged();
         return this;
     }
 
@@ -87,6 +96,7 @@ public class ItemStorageCoFH implements IItemHandler, IItemStackHolder, IResourc
         this.creative = creative;
         if (!item.isEmpty() && isCreative()) {
             item.setCount(getCapacity());
+            onContentsChanged();
         }
         return this;
     }
@@ -107,6 +117,11 @@ public class ItemStorageCoFH implements IItemHandler, IItemStackHolder, IResourc
         return this;
     }
 
+    public boolean isEnabled() {
+
+        return enabled.get();
+    }
+
     public boolean isItemValid(@Nonnull ItemStack stack) {
 
         return enabled.get() && validator.test(stack);
@@ -115,17 +130,80 @@ public class ItemStorageCoFH implements IItemHandler, IItemStackHolder, IResourc
     public void consume(int amount) {
 
         this.item = ItemHelper.consumeItem(item, amount);
+        onContentsChanged();
     }
 
     public void setItemStack(ItemStack item) {
 
         this.item = item.isEmpty() ? emptyItem.get() : item;
+        onContentsChanged();
     }
 
+    /**
+     * Returns how many items of the given stack this slot would accept; matches {@link #insertItem(int, ItemStack, boolean)}.
+     */
+    public int getSpaceFor(ItemStack stack) {
+
+        if (stack.isEmpty() || !isItemValid(stack)) {
+            return 0;
+        }
+        if (item.isEmpty()) {
+            return getSlotLimit(0);
+        }
+        if (itemsEqualWithTags(item, stack)) {
+            return Math.max(0, getSlotLimit(0) - item.getCount());
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the given amount of the stack to this slot. The amount must not exceed {@link #getSpaceFor(ItemStack)}; the stack is only copied
+     * if this slot is empty.
+     */
+    public void receive(ItemStack stack, int amount) {
+
+        if (item.isEmpty()) {
+            setItemStack(cloneStack(stack, amount));
+        } else {
+            item.grow(amount);
+            onContentsChanged();
+        }
+    }
+
+    // region LISTENERS
+    void addListener(SimpleItemHandler handler) {
+
+        if (listeners.isEmpty()) {
+            listeners = new ArrayList<>(2);
+        }
+        if (!listeners.contains(handler)) {
+            listeners.add(handler);
+        }
+    }
+
+    /**
+     * Must be called whenever the stored stack or the capacity changes outside of the methods of this class, e.g. if the stack returned by
+     * {@link #getItemStack()} is modified directly.
+     */
+    public void onContentsChanged() {
+
+        ++version;
+        for (int i = 0; i < listeners.size(); ++i) {
+            listeners.get(i).onSlotChanged(this);
+        }
+    }
+
+    public int getVersion() {
+
+        return version;
+    }
+    // endregion
+
     // region NBT
     public ItemStorageCoFH read(CompoundTag nbt) {
 
         item = loadItemStack(nbt);
+        onContentsChanged();
         return this;
     }
 
@@ -219,11 +297,13 @@ public class ItemStorageCoFH implements IItemHandler, IItemStackHolder, IResourc
             if (totalCount <= limit) {
                 if (!simulate) {
                     item.setCount(totalCount);
+                    onContentsChanged();
                 }
                 return ItemStack.EMPTY;
             }
             if (!simulate) {
                 item.setCount(limit);
+                onContentsChanged();
             }
             return cloneStack(stack, totalCount - limit);
         }
@@ -243,6 +323,8 @@ public class ItemStorageCoFH implements IItemHandler, IItemStackHolder, IResourc
             item.shrink(retCount);
             if (item.isEmpty()) {
                 setItemStack(emptyItem.get());
+            } else {
+                onContentsChanged();
             }
         }
         return ret;
@@ -269,6 +351,7 @@ public class ItemStorageCoFH implements IItemHandler, IItemStackHolder, IResourc
             return false;
         }
         this.item = emptyItem.get();
+        onContentsChanged();
         return true;
     }
 
@@ -282,6 +365,7 @@ public class ItemStorageCoFH implements IItemHandler, IItemStackHolder, IResourc
         if (this.item.isEmpty()) {
             this.item = emptyItem.get();
         }
+        onContentsChanged();
     }
 
     @Override
@@ -0,0 +1,34 @@
+package cofh.lib.inventory;
+
+/**
+ * Outcome of a bulk item transfer: the number of items moved and the number of source slots visited.
+ */
+public final class ItemTransferResult {
+
+    public static final ItemTransferResult NONE = new ItemTransferResult(0, 0);
+
+    private final int moved;
+    private final int slotsVisited;
+
+    public ItemTransferResult(int moved, int slotsVisited) {
+
+        this.moved = moved;
+        this.slotsVisited = slotsVisited;
+    }
+
+    public int getMoved() {
+
+        return moved;
+    }
+
+    public int getSlotsVisited() {
+
+        return slotsVisited;
+    }
+
+    public boolean hasMoved() {
+
+        return moved > 0;
+    }
+
+}
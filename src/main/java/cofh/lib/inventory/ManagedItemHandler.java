@@ -36,6 +36,33 @@ public class ManagedItemHandler extends SimpleItemHandler {
         return this;
     }
 
+    @Override
+    protected int getInsertSlots() {
+
+        return Math.min(inputSlots.size(), slots.size());
+    }
+
+    @Override
+    protected int getExtractStart() {
+
+        return preventInputExtract ? inputSlots.size() : 0;
+    }
+
+    @Override
+    protected boolean isDirectCapable() {
+
+        return getClass() == ManagedItemHandler.class;
+    }
+
+    @Override
+    protected void onSlotFilled(int slot, boolean wasEmpty) {
+
+        // Matches insertItem(), which only notifies when the item type changes.
+        if (wasEmpty) {
+            onInventoryChange(slot);
+        }
+    }
+
     // region IItemHandler
     @Nonnull
     @Override
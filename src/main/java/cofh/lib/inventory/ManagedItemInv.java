@@ -51,6 +51,7 @@ public class ManagedItemInv extends SimpleItemInv {
     public void addSlot(ItemStorageCoFH slot, StorageGroup group) {
 
         slots.add(slot);
+        invalidateIndex();
         switch (group) {
             case CATALYST:
                 catalystSlots.add(slot);
@@ -88,6 +89,17 @@ public class ManagedItemInv extends SimpleItemInv {
         allHandler = new SimpleItemHandler(callback, slots);
     }
 
+    /**
+     * Bulk transfer from the handler for the given group; see {@link SimpleItemHandler#transferTo(IItemHandler, int, Predicate)}.
+     */
+    public ItemTransferResult transferTo(StorageGroup group, IItemHandler target, int maxItems, Predicate<ItemStack> filter) {
+
+        if (getHandler(group) instanceof SimpleItemHandler handler) {
+            return handler.transferTo(target, maxItems, filter);
+        }
+        return ItemTransferResult.NONE;
+    }
+
     public boolean hasInputSlots() {
 
         return inputSlots.size() > 0;
@@ -29,6 +29,18 @@ public class NullItemStorage extends ItemStorageCoFH {
         // Do Nothing
     }
 
+    @Override
+    public int getSpaceFor(ItemStack stack) {
+
+        return isItemValid(stack) ? Integer.MAX_VALUE : 0;
+    }
+
+    @Override
+    public void receive(ItemStack stack, int amount) {
+
+        // Do Nothing
+    }
+
     // region IItemHandler
     @Nonnull
     @Override
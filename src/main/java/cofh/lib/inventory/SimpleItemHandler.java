@@ -1,16 +1,28 @@
 package cofh.lib.inventory;
 
 import cofh.lib.api.IStorageCallback;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Predicate;
+
+import static cofh.core.util.helpers.ItemHelper.cloneStack;
 
 /**
  * Simple Item Handler implementation using CoFH Item Storage objects.
+ * <p>
+ * Keeps an occupancy index (non-empty and full slots, and the slots holding each item) which is built on first use and then kept
+ * current by the slots themselves, so {@link #isEmpty()}, {@link #isFull()} and {@link #insertItemStacked(ItemStack, boolean)} do not
+ * need to visit every slot.
  */
 public class SimpleItemHandler implements IItemHandler {
 
@@ -18,6 +30,19 @@ public class SimpleItemHandler implements IItemHandler {
     protected IStorageCallback callback;
     protected List<ItemStorageCoFH> slots;
 
+    // region INDEX
+    protected final Reference2IntOpenHashMap<ItemStorageCoFH> slotIndex = new Reference2IntOpenHashMap<>();
+    protected final Reference2ObjectOpenHashMap<Item, BitSet> itemSlots = new Reference2ObjectOpenHashMap<>();
+    protected final BitSet occupied = new BitSet();
+    protected final BitSet full = new BitSet();
+    protected Item[] slotItems = new Item[0];
+    protected int occupiedCount;
+    protected int fullCount;
+    protected boolean indexed;
+    // TRUE if a storage object appears in more than one slot; such changes cannot be mapped back to a single slot.
+    protected boolean duplicateSlots;
+    // endregion
+
     public SimpleItemHandler(@Nonnull List<ItemStorageCoFH> slots) {
 
         this(null, slots);
@@ -37,31 +62,357 @@ public class SimpleItemHandler implements IItemHandler {
 
     public boolean isEmpty() {
 
-        for (ItemStorageCoFH slot : slots) {
-            if (!slot.isEmpty()) {
-                return false;
+        ensureIndex();
+        return occupiedCount == 0;
+    }
+
+    public boolean isFull() {
+
+        ensureIndex();
+        return fullCount >= slots.size();
+    }
+
+    public void onInventoryChange(int slot) {
+
+        if (indexed && slot >= 0 && slot < slotItems.length) {
+            updateSlot(slot);
+        }
+        if (callback == null) {
+            return;
+        }
+        callback.onInventoryChanged(slot);
+    }
+
+    /**
+     * Equivalent to {@link ItemHandlerHelper#insertItemStacked(IItemHandler, ItemStack, boolean)}, but only visits slots which already
+     * hold the item and are not full, followed by empty slots.
+     */
+    @Nonnull
+    public ItemStack insertItemStacked(@Nonnull ItemStack stack, boolean simulate) {
+
+        if (stack.isEmpty()) {
+            return stack;
+        }
+        ensureIndex();
+        int limit = getInsertSlots();
+        BitSet matching = itemSlots.get(stack.getItem());
+        if (matching != null) {
+            for (int i = matching.nextSetBit(0); i >= 0 && i < limit; i = matching.nextSetBit(i + 1)) {
+                if (full.get(i)) {
+                    continue;
+                }
+                stack = insertItem(i, stack, simulate);
+                if (stack.isEmpty()) {
+                    return ItemStack.EMPTY;
+                }
+            }
+        }
+        for (int i = occupied.nextClearBit(0); i < limit; i = occupied.nextClearBit(i + 1)) {
+            stack = insertItem(i, stack, simulate);
+            if (stack.isEmpty()) {
+                return ItemStack.EMPTY;
             }
         }
+        return stack;
+    }
+
+    /**
+     * Number of leading slots which accept insertion.
+     */
+    protected int getInsertSlots() {
+
+        return slots.size();
+    }
+
+    /**
+     * Number of leading slots which do not allow extraction.
+     */
+    protected int getExtractStart() {
+
+        return 0;
+    }
+
+    /**
+     * Whether extraction is currently allowed at all.
+     */
+    protected boolean canExtract() {
+
         return true;
     }
 
-    public boolean isFull() {
+    /**
+     * Whether slots may be accessed directly for bulk transfers, bypassing {@link #insertItem(int, ItemStack, boolean)} and
+     * {@link #extractItem(int, int, boolean)}. Only TRUE for handler classes whose rules are fully described by {@link #getInsertSlots()},
+     * {@link #getExtractStart()} and {@link #canExtract()}; subclasses overriding those methods fall back to the generic path.
+     */
+    protected boolean isDirectCapable() {
+
+        return getClass() == SimpleItemHandler.class;
+    }
+
+    /**
+     * Whether other CoFH handlers may currently fill the slots of this handler directly.
+     */
+    protected boolean canReceiveDirect() {
+
+        return isDirectCapable();
+    }
+
+    /**
+     * Called after a slot has been filled directly by another handler.
+     */
+    protected void onSlotFilled(int slot, boolean wasEmpty) {
+
+        onInventoryChange(slot);
+    }
+
+    // region TRANSFER
+    /**
+     * Moves up to the given number of items matching the filter from this handler into the target.
+     * <p>
+     * If the target is a CoFH slot, or a CoFH handler which accepts direct transfers, items are moved slot to slot without simulated
+     * insert/extract pairs or intermediate copies. Any other target uses a single real insert per source slot.
+     */
+    public ItemTransferResult transferTo(IItemHandler target, int maxItems, Predicate<ItemStack> filter) {
 
-        for (ItemStorageCoFH slot : slots) {
-            if (!slot.isFull()) {
-                return false;
+        if (maxItems <= 0 || !canExtract()) {
+            return ItemTransferResult.NONE;
+        }
+        if (!isDirectCapable()) {
+            return transferGeneric(target, maxItems, filter);
+        }
+        ensureIndex();
+        SimpleItemHandler directHandler = target instanceof SimpleItemHandler handler && handler.canReceiveDirect() ? handler : null;
+        ItemStorageCoFH directSlot = target instanceof ItemStorageCoFH slot ? slot : null;
+
+        int remaining = maxItems;
+        int visited = 0;
+        for (int i = occupied.nextSetBit(getExtractStart()); i >= 0 && i < slots.size() && remaining > 0; i = occupied.nextSetBit(i + 1)) {
+            ItemStorageCoFH source = slots.get(i);
+            ItemStack stack = source.getItemStack();
+            // Disabled slots cannot be extracted from, matching ItemStorageCoFH#extractItem.
+            if (stack.isEmpty() || !source.isEnabled() || !filter.test(stack)) {
+                continue;
+            }
+            ++visited;
+            int amount = Math.min(remaining, stack.getCount());
+            int moved;
+            if (directHandler != null) {
+                moved = directHandler.receiveDirect(source, stack, amount);
+            } else if (directSlot != null) {
+                moved = directSlot == source ? 0 : Math.min(amount, directSlot.getSpaceFor(stack));
+                if (moved > 0) {
+                    directSlot.receive(stack, moved);
+                }
+            } else {
+                ItemStack rest = ItemHandlerHelper.insertItemStacked(target, cloneStack(stack, amount), false);
+                moved = amount - rest.getCount();
+            }
+            if (moved > 0) {
+                source.modify(-moved);
+                onInventoryChange(i);
+                remaining -= moved;
             }
         }
-        return true;
+        return new ItemTransferResult(maxItems - remaining, visited);
     }
 
-    public void onInventoryChange(int slot) {
+    /**
+     * Moves up to the given number of items from a single CoFH slot into this handler.
+     *
+     * @return The number of items moved.
+     */
+    public int receiveFrom(ItemStorageCoFH source, int maxItems) {
 
-        if (callback == null) {
+        ItemStack stack = source.getItemStack();
+        if (maxItems <= 0 || stack.isEmpty() || !source.isEnabled()) {
+            return 0;
+        }
+        int amount = Math.min(maxItems, stack.getCount());
+        int moved;
+        if (canReceiveDirect()) {
+            moved = receiveDirect(source, stack, amount);
+        } else {
+            moved = amount - insertItemStacked(cloneStack(stack, amount), false).getCount();
+        }
+        if (moved > 0) {
+            source.modify(-moved);
+        }
+        return moved;
+    }
+
+    /**
+     * Simulate/commit transfer through {@link #extractItem(int, int, boolean)}, used by handler subclasses with custom extraction rules.
+     */
+    protected ItemTransferResult transferGeneric(IItemHandler target, int maxItems, Predicate<ItemStack> filter) {
+
+        int remaining = maxItems;
+        int visited = 0;
+        for (int i = 0; i < getSlots() && remaining > 0; ++i) {
+            ItemStack query = extractItem(i, remaining, true);
+            if (query.isEmpty() || !filter.test(query)) {
+                continue;
+            }
+            ++visited;
+            ItemStack rest = ItemHandlerHelper.insertItemStacked(target, query, true);
+            int amount = query.getCount() - rest.getCount();
+            if (amount > 0) {
+                ItemStack extracted = extractItem(i, amount, false);
+                rest = ItemHandlerHelper.insertItemStacked(target, extracted, false);
+                remaining -= extracted.getCount() - rest.getCount();
+                if (!rest.isEmpty()) {
+                    slots.get(i).insertItem(i, rest, false);
+                }
+            }
+        }
+        return new ItemTransferResult(maxItems - remaining, visited);
+    }
+
+    /**
+     * Fills this handler's slots from the given stack, which belongs to the source slot and is left unmodified.
+     *
+     * @return The number of items accepted.
+     */
+    protected int receiveDirect(ItemStorageCoFH source, ItemStack stack, int amount) {
+
+        ensureIndex();
+        int limit = getInsertSlots();
+        int moved = 0;
+        BitSet matching = itemSlots.get(stack.getItem());
+        if (matching != null) {
+            for (int i = matching.nextSetBit(0); i >= 0 && i < limit && moved < amount; i = matching.nextSetBit(i + 1)) {
+                if (!full.get(i)) {
+                    moved += fillSlot(i, source, stack, amount - moved);
+                }
+            }
+        }
+        for (int i = occupied.nextClearBit(0); i < limit && moved < amount; i = occupied.nextClearBit(i + 1)) {
+            moved += fillSlot(i, source, stack, amount - moved);
+        }
+        return moved;
+    }
+
+    private int fillSlot(int slot, ItemStorageCoFH source, ItemStack stack, int amount) {
+
+        ItemStorageCoFH storage = slots.get(slot);
+        if (storage == source) {
+            return 0;
+        }
+        int accepted = Math.min(amount, storage.getSpaceFor(stack));
+        if (accepted <= 0) {
+            return 0;
+        }
+        boolean wasEmpty = storage.isEmpty();
+        storage.receive(stack, accepted);
+        onSlotFilled(slot, wasEmpty);
+        return accepted;
+    }
+    // endregion
+
+    // region INDEX
+    /**
+     * Forces the occupancy index to be rebuilt on next use. Must be called if the slot list itself changes.
+     */
+    public void invalidateIndex() {
+
+        indexed = false;
+    }
+
+    /**
+     * Called by a slot of this handler when its contents have changed.
+     */
+    void onSlotChanged(ItemStorageCoFH storage) {
+
+        if (!indexed) {
             return;
         }
-        callback.onInventoryChanged(slot);
+        if (duplicateSlots) {
+            indexed = false;
+            return;
+        }
+        int slot = slotIndex.getInt(storage);
+        if (slot >= 0 && slot < slotItems.length && slots.get(slot) == storage) {
+            updateSlot(slot);
+        }
+    }
+
+    /**
+     * Re-reads every slot into the cached index, for callers that modified stacks in place without a per-slot notification.
+     */
+    public void refreshIndex() {
+
+        if (!indexed) {
+            return;
+        }
+        for (int i = 0; i < slotItems.length; ++i) {
+            updateSlot(i);
+        }
+    }
+
+    protected void ensureIndex() {
+
+        if (!indexed) {
+            rebuildIndex();
+        }
+    }
+
+    protected void rebuildIndex() {
+
+        int size = slots.size();
+        slotIndex.clear();
+        slotIndex.defaultReturnValue(-1);
+        itemSlots.clear();
+        occupied.clear();
+        full.clear();
+        slotItems = new Item[size];
+        occupiedCount = 0;
+        fullCount = 0;
+        duplicateSlots = false;
+
+        for (int i = 0; i < size; ++i) {
+            ItemStorageCoFH storage = slots.get(i);
+            if (slotIndex.putIfAbsent(storage, i) != -1) {
+                duplicateSlots = true;
+            }
+            storage.addListener(this);
+        }
+        indexed = true;
+        for (int i = 0; i < size; ++i) {
+            updateSlot(i);
+        }
+    }
+
+    protected void updateSlot(int slot) {
+
+        ItemStorageCoFH storage = slots.get(slot);
+        ItemStack stack = storage.getItemStack();
+        Item prev = slotItems[slot];
+        Item cur = stack.isEmpty() ? null : stack.getItem();
+        if (prev != cur) {
+            if (prev != null) {
+                BitSet prevSlots = itemSlots.get(prev);
+                prevSlots.clear(slot);
+                if (prevSlots.isEmpty()) {
+                    itemSlots.remove(prev);
+                }
+            }
+            if (cur != null) {
+                itemSlots.computeIfAbsent(cur, k -> new BitSet()).set(slot);
+            }
+            slotItems[slot] = cur;
+        }
+        boolean isOccupied = !storage.isEmpty();
+        if (occupied.get(slot) != isOccupied) {
+            occupied.set(slot, isOccupied);
+            occupiedCount += isOccupied ? 1 : -1;
+        }
+        boolean isFull = storage.isFull();
+        if (full.get(slot) != isFull) {
+            full.set(slot, isFull);
+            fullCount += isFull ? 1 : -1;
+        }
     }
+    // endregion
 
     // region IItemHandler
     @Override
@@ -2,6 +2,8 @@ package cofh.lib.inventory;
 
 import cofh.lib.api.IStorageCallback;
 import cofh.lib.api.StorageGroup;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingOutputStream;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.world.item.ItemStack;
@@ -9,7 +11,11 @@ import net.minecraftforge.items.IItemHandler;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 
@@ -19,6 +25,11 @@ import static net.minecraft.nbt.Tag.TAG_COMPOUND;
 
 /**
  * Inventory abstraction using CoFH Item Storage objects.
+ * <p>
+ * The serialized tag of each slot is cached and reused by later writes until the slot changes, so saving a large, mostly idle inventory
+ * only encodes the slots which actually changed. Cached tags are shared with the written list and treated as immutable: callers must not
+ * modify the tags they pass to {@link #read} or get back from {@link #write}. Stacks with capability data are never cached, since
+ * capabilities can change without touching the stack.
  */
 public class SimpleItemInv extends SimpleItemHandler {
 
@@ -26,6 +37,13 @@ public class SimpleItemInv extends SimpleItemHandler {
 
     protected IItemHandler allHandler;
 
+    protected SavedSlot[] savedSlots = new SavedSlot[0];
+
+    // Metrics
+    protected long saves;
+    protected long encodedSlots;
+    protected long reusedSlots;
+
     public SimpleItemInv(@Nonnull List<ItemStorageCoFH> slots) {
 
         this(null, slots, TAG_ITEM_INV);
@@ -58,6 +76,7 @@ public class SimpleItemInv extends SimpleItemHandler {
             return;
         }
         slots.add(slot);
+        invalidateIndex();
     }
 
     public void clear() {
@@ -103,17 +122,22 @@ public class SimpleItemInv extends SimpleItemHandler {
     // region NBT
     public SimpleItemInv read(CompoundTag nbt) {
 
-        for (ItemStorageCoFH slot : slots) {
-            slot.setItemStack(ItemStack.EMPTY);
-        }
+        ensureSavedSlots();
+        BitSet present = new BitSet(slots.size());
         ListTag list = nbt.getList(tag, TAG_COMPOUND);
         for (int i = 0; i < list.size(); ++i) {
             CompoundTag slotTag = list.getCompound(i);
             int slot = slotTag.getByte(TAG_SLOT);
             if (slot >= 0 && slot < slots.size()) {
-                slots.get(slot).read(slotTag);
+                present.set(slot);
+                ItemStorageCoFH storage = slots.get(slot);
+                storage.read(slotTag);
+                savedSlots[slot] = SavedSlot.of(storage, slotTag);
             }
         }
+        for (int i = present.nextClearBit(0); i < slots.size(); i = present.nextClearBit(i + 1)) {
+            slots.get(i).setItemStack(ItemStack.EMPTY);
+        }
         return this;
     }
 
@@ -122,13 +146,11 @@ public class SimpleItemInv extends SimpleItemHandler {
         if (slots.size() <= 0) {
             return nbt;
         }
+        ++saves;
         ListTag list = new ListTag();
         for (int i = 0; i < slots.size(); ++i) {
             if (!slots.get(i).isEmpty()) {
-                CompoundTag slotTag = new CompoundTag();
-                slotTag.putByte(TAG_SLOT, (byte) i);
-                slots.get(i).write(slotTag);
-                list.add(slotTag);
+                list.add(getSlotTag(i));
             }
         }
         if (!list.isEmpty()) {
@@ -138,6 +160,73 @@ public class SimpleItemInv extends SimpleItemHandler {
         }
         return nbt;
     }
+
+    /**
+     * Returns the serialized tag (including the slot index) of the given slot, reusing the cached tag if the slot is unchanged.
+     */
+    protected CompoundTag getSlotTag(int slot) {
+
+        ensureSavedSlots();
+        ItemStorageCoFH storage = slots.get(slot);
+        SavedSlot saved = savedSlots[slot];
+        if (saved != null && saved.isValid(storage)) {
+            ++reusedSlots;
+            return saved.tag;
+        }
+        CompoundTag slotTag = new CompoundTag();
+        slotTag.putByte(TAG_SLOT, (byte) slot);
+        storage.write(slotTag);
+        savedSlots[slot] = SavedSlot.of(storage, slotTag);
+        ++encodedSlots;
+        return slotTag;
+    }
+
+    private void ensureSavedSlots() {
+
+        if (savedSlots.length != slots.size()) {
+            savedSlots = Arrays.copyOf(savedSlots, slots.size());
+        }
+    }
+    // endregion
+
+    // region METRICS
+    public long getSaves() {
+
+        return saves;
+    }
+
+    /**
+     * Number of slot tags encoded by writes; slots reused from the cache are not counted.
+     */
+    public long getEncodedSlots() {
+
+        return encodedSlots;
+    }
+
+    public long getReusedSlots() {
+
+        return reusedSlots;
+    }
+
+    /**
+     * Size in bytes of the currently cached slot tags, as written to disk (uncompressed). Intended for profiling only.
+     */
+    public long measureSavedBytes() {
+
+        CountingOutputStream counter = new CountingOutputStream(ByteStreams.nullOutputStream());
+        DataOutputStream output = new DataOutputStream(counter);
+        try {
+            for (SavedSlot saved : savedSlots) {
+                if (saved != null) {
+                    saved.tag.write(output);
+                }
+            }
+            output.flush();
+        } catch (IOException e) {
+            return -1;
+        }
+        return counter.getCount();
+    }
     // endregion
 
     // region HELPERS
@@ -159,10 +248,7 @@ public class SimpleItemInv extends SimpleItemHandler {
         ListTag list = new ListTag();
         for (int i = startIndex; i < Math.min(endIndex, slots.size()); ++i) {
             if (!slots.get(i).isEmpty()) {
-                CompoundTag slotTag = new CompoundTag();
-                slotTag.putByte(TAG_SLOT, (byte) i);
-                slots.get(i).write(slotTag);
-                list.add(slotTag);
+                list.add(getSlotTag(i));
             }
         }
         if (!list.isEmpty()) {
@@ -233,4 +319,48 @@ public class SimpleItemInv extends SimpleItemHandler {
         return allHandler;
     }
 
+    // region SAVED SLOT
+    protected static class SavedSlot {
+
+        final ItemStorageCoFH storage;
+        final int version;
+        final ItemStack stack;
+        final int count;
+        @Nullable
+        final CompoundTag stackTag;
+        final CompoundTag tag;
+
+        private SavedSlot(ItemStorageCoFH storage, CompoundTag tag) {
+
+            this.storage = storage;
+            this.version = storage.getVersion();
+            this.stack = storage.getItemStack();
+            this.count = stack.getCount();
+            this.stackTag = stack.getTag();
+            this.tag = tag;
+        }
+
+        /**
+         * Returns null if the stack carries capability data, which {@link ItemStack#save} writes but no cheap check can see change.
+         */
+        @Nullable
+        static SavedSlot of(ItemStorageCoFH storage, CompoundTag tag) {
+
+            // Only stacks with serializable capabilities are incompatible with the empty stack.
+            return storage.getItemStack().areCapsCompatible(ItemStack.EMPTY) ? new SavedSlot(storage, tag) : null;
+        }
+
+        /**
+         * The version covers changes made through the storage; the identity checks catch stacks which were replaced, resized or given a new
+         * tag in place. Edits inside the same tag object must go through the storage (or bump its version) to be seen.
+         */
+        boolean isValid(ItemStorageCoFH storage) {
+
+            ItemStack cur = storage.getItemStack();
+            return this.storage == storage && this.version == storage.getVersion() && this.stack == cur && this.count == cur.getCount() && this.stackTag == cur.getTag();
+        }
+
+    }
+    // endregion
+
 }
@@ -66,8 +66,9 @@ public class InvWrapperCoFH implements Container {
         ItemStack stack = inSlot.split(count);
         if (inSlot.getCount() <= 0) {
             inventory.set(index, ItemStack.EMPTY);
-            inventory.onInventoryChange(index);
         }
+        // A partial split shrinks the stack in place; the slot's cached full state must still be refreshed.
+        inventory.onInventoryChange(index);
         return stack;
     }
 
@@ -83,12 +84,11 @@ public class InvWrapperCoFH implements Container {
     @Override
     public void setItem(int index, ItemStack stack) {
 
-        /* This condition succeeds when the slot is already empty and is being emptied.
-        It happens enough to warrant a check and prevent superfluous logic.*/
-        if (inventory.get(index).equals(stack)) {
-            return;
+        /* This condition succeeds when the slot is already empty and is being emptied, or when a slot hands back the stack it just grew
+        in place (Slot#safeInsert). The set is skipped, but the change must still be reported so cached slot state is refreshed.*/
+        if (!inventory.get(index).equals(stack)) {
+            inventory.set(index, stack);
         }
-        inventory.set(index, stack);
         inventory.onInventoryChange(index);
     }
 
@@ -101,6 +101,8 @@ public class InvWrapperCoFH implements Container {
     @Override
     public void setChanged() {
 
+        // Container menus grow or shrink stacks in place and then only call this.
+        inventory.refreshIndex();
     }
 
     @Override
@@ -0,0 +1,81 @@
+package cofh.lib.network;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Per-level index of the players watching each chunk, maintained from chunk watch/unwatch events.
+ * <p>
+ * ChunkMap#getPlayers builds a fresh list from every tracked player on each call; this lookup is a single hash probe and returns the
+ * live list, so callers must not modify it or hold on to it.
+ */
+public final class ChunkWatchers {
+
+    private static final Map<ServerLevel, Long2ObjectOpenHashMap<ObjectArrayList<ServerPlayer>>> WATCHERS = new WeakHashMap<>();
+
+    private ChunkWatchers() {
+
+    }
+
+    public static List<ServerPlayer> get(ServerLevel level, ChunkPos pos) {
+
+        Long2ObjectOpenHashMap<ObjectArrayList<ServerPlayer>> chunks = WATCHERS.get(level);
+        if (chunks == null) {
+            return Collections.emptyList();
+        }
+        List<ServerPlayer> players = chunks.get(pos.toLong());
+        return players == null ? Collections.emptyList() : players;
+    }
+
+    public static void watch(ServerLevel level, ChunkPos pos, ServerPlayer player) {
+
+        ObjectArrayList<ServerPlayer> players = WATCHERS.computeIfAbsent(level, l -> new Long2ObjectOpenHashMap<>()).computeIfAbsent(pos.toLong(), p -> new ObjectArrayList<>(2));
+        if (!players.contains(player)) {
+            players.add(player);
+        }
+    }
+
+    public static void unwatch(ServerLevel level, ChunkPos pos, ServerPlayer player) {
+
+        Long2ObjectOpenHashMap<ObjectArrayList<ServerPlayer>> chunks = WATCHERS.get(level);
+        if (chunks == null) {
+            return;
+        }
+        long key = pos.toLong();
+        ObjectArrayList<ServerPlayer> players = chunks.get(key);
+        if (players != null && players.remove(player) && players.isEmpty()) {
+            chunks.remove(key);
+        }
+    }
+
+    /**
+     * Drops the player from every chunk, in case an unwatch was missed (e.g. on disconnect).
+     */
+    public static void remove(ServerPlayer player) {
+
+        for (Long2ObjectOpenHashMap<ObjectArrayList<ServerPlayer>> chunks : WATCHERS.values()) {
+            for (Iterator<Long2ObjectMap.Entry<ObjectArrayList<ServerPlayer>>> iter = chunks.long2ObjectEntrySet().fastIterator(); iter.hasNext(); ) {
+                Long2ObjectMap.Entry<ObjectArrayList<ServerPlayer>> entry = iter.next();
+                if (entry.getValue().remove(player) && entry.getValue().isEmpty()) {
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    public static void unload(ServerLevel level) {
+
+        WATCHERS.remove(level);
+    }
+
+}
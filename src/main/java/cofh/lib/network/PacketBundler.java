@@ -0,0 +1,204 @@
+package cofh.lib.network;
+
+import cofh.lib.network.packet.IPacketClient;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraftforge.network.NetworkDirection;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Queues a channel's outbound client packets per player during a server tick and sends them as bundled payloads when flushed.
+ * <p>
+ * A bundle is a payload with id {@link #BUNDLE_ID}, followed by a packet count and then each packet as a length-prefixed (varint id, data)
+ * entry, in the order queued. A packet with the same id and {@link IPacketClient#coalesceKey() coalesce key} as an earlier entry for that
+ * player drops the earlier entry and is queued at the end, so only the latest state is sent and it still arrives after every packet that
+ * was queued before it (e.g. deltas for the same tile).
+ */
+final class PacketBundler {
+
+    static final int BUNDLE_ID = 0;
+
+    // Vanilla's limit for a clientbound custom payload, less room for the bundle header.
+    private static final int MAX_BUNDLE_BYTES = 1048576 - 16;
+
+    private final PacketHandler handler;
+    private final Map<ServerPlayer, Outbox> outboxes = new Reference2ObjectOpenHashMap<>();
+    private final ArrayDeque<Outbox> pool = new ArrayDeque<>();
+
+    // Metrics
+    private long queued;
+    private long collapsed;
+    private long payloads;
+
+    PacketBundler(PacketHandler handler) {
+
+        this.handler = handler;
+    }
+
+    /**
+     * Serializes the packet (id and data) once, so it can be queued for any number of players.
+     */
+    static ByteBuf serialize(IPacketClient packet) {
+
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        buf.writeVarInt(packet.getPacketId());
+        packet.write(buf);
+        return buf;
+    }
+
+    void queue(ServerPlayer player, IPacketClient packet, ByteBuf data) {
+
+        Outbox outbox = outboxes.get(player);
+        if (outbox == null) {
+            outbox = pool.isEmpty() ? new Outbox() : pool.poll();
+            outboxes.put(player, outbox);
+        }
+        ++queued;
+        if (outbox.add(packet.getPacketId(), packet.coalesceKey(), data)) {
+            ++collapsed;
+        }
+    }
+
+    boolean isEmpty() {
+
+        return outboxes.isEmpty();
+    }
+
+    void flush() {
+
+        for (Map.Entry<ServerPlayer, Outbox> entry : outboxes.entrySet()) {
+            ServerPlayer player = entry.getKey();
+            Outbox outbox = entry.getValue();
+            if (!player.hasDisconnected()) {
+                send(player, outbox);
+            }
+            outbox.clear();
+            pool.offer(outbox);
+        }
+        outboxes.clear();
+    }
+
+    private void send(ServerPlayer player, Outbox outbox) {
+
+        ObjectArrayList<ByteBuf> entries = outbox.entries;
+        int start = 0;
+        while (start < entries.size()) {
+            // Gather as many entries as fit in one payload. Replaced entries are null and skipped.
+            int end = start;
+            int count = 0;
+            int last = -1;
+            int bytes = 0;
+            while (end < entries.size()) {
+                ByteBuf data = entries.get(end);
+                if (data != null) {
+                    int size = data.readableBytes() + 5;
+                    if (count > 0 && bytes + size > MAX_BUNDLE_BYTES) {
+                        break;
+                    }
+                    bytes += size;
+                    ++count;
+                    last = end;
+                }
+                ++end;
+            }
+            if (count == 0) {
+                break;
+            }
+            ByteBuf payload;
+            if (count == 1) {
+                payload = entries.get(last).duplicate();
+            } else {
+                FriendlyByteBuf bundle = new FriendlyByteBuf(Unpooled.buffer(bytes + 8));
+                bundle.writeVarInt(BUNDLE_ID);
+                bundle.writeVarInt(count);
+                for (int i = start; i < end; ++i) {
+                    ByteBuf data = entries.get(i);
+                    if (data == null) {
+                        continue;
+                    }
+                    bundle.writeVarInt(data.readableBytes());
+                    bundle.writeBytes(data, data.readerIndex(), data.readableBytes());
+                }
+                payload = bundle;
+            }
+            player.connection.send(NetworkDirection.PLAY_TO_CLIENT.buildPacket(Pair.of(new FriendlyByteBuf(payload), 0), handler.getChannelName()).getThis());
+            ++payloads;
+            start = end;
+        }
+    }
+
+    // region METRICS
+    long getQueued() {
+
+        return queued;
+    }
+
+    long getCollapsed() {
+
+        return collapsed;
+    }
+
+    long getPayloads() {
+
+        return payloads;
+    }
+    // endregion
+
+    // region OUTBOX
+    private static class Outbox {
+
+        // Entries in send order; null where an entry was replaced by a later one.
+        final ObjectArrayList<ByteBuf> entries = new ObjectArrayList<>();
+        // Packet id -> coalesce key -> entry index; created on first use.
+        Long2IntOpenHashMap[] keyed = new Long2IntOpenHashMap[32];
+
+        /**
+         * @return TRUE if the packet replaced an earlier entry.
+         */
+        boolean add(int id, long key, ByteBuf data) {
+
+            if (key != IPacketClient.NO_COALESCE) {
+                if (id >= keyed.length) {
+                    keyed = Arrays.copyOf(keyed, Math.max(id + 1, keyed.length * 2));
+                }
+                Long2IntOpenHashMap slots = keyed[id];
+                if (slots == null) {
+                    slots = new Long2IntOpenHashMap();
+                    slots.defaultReturnValue(-1);
+                    keyed[id] = slots;
+                }
+                // Move the latest state behind anything queued since the replaced entry, rather than sending it early.
+                int slot = slots.put(key, entries.size());
+                entries.add(data);
+                if (slot >= 0) {
+                    entries.set(slot, null);
+                    return true;
+                }
+                return false;
+            }
+            entries.add(data);
+            return false;
+        }
+
+        void clear() {
+
+            entries.clear();
+            for (Long2IntOpenHashMap slots : keyed) {
+                if (slots != null) {
+                    slots.clear();
+                }
+            }
+        }
+
+    }
+    // endregion
+}
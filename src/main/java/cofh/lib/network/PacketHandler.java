@@ -4,27 +4,50 @@ import cofh.lib.network.packet.IPacket;
 import cofh.lib.network.packet.IPacketClient;
 import cofh.lib.network.packet.IPacketServer;
 import io.netty.buffer.ByteBuf;
-import it.unimi.dsi.fastutil.bytes.Byte2ObjectArrayMap;
-import it.unimi.dsi.fastutil.bytes.Byte2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.PacketListener;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.server.network.ServerGamePacketListenerImpl;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.loading.FMLEnvironment;
 import net.minecraftforge.network.NetworkEvent;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.event.EventNetworkChannel;
+import net.minecraftforge.server.ServerLifecycleHooks;
 import org.apache.logging.log4j.Logger;
 
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 public class PacketHandler {
 
+    // Bumped to 2 when packet ids became varints and bundles were added; older peers cannot read either.
+    private static final String PROTOCOL_VERSION = "2";
+    private static final List<PacketHandler> HANDLERS = new ObjectArrayList<>();
+
     private final ResourceLocation channelName;
     private final EventNetworkChannel channel;
-    private final Byte2ObjectMap<Supplier<IPacket>> packets = new Byte2ObjectArrayMap<>(255);
+    // Indexed by packet id; grown as packets are registered.
+    private PacketType[] types = new PacketType[32];
+
+    // Index 0 counts packets decoded on the client, 1 on the server.
+    private final LongAdder[] decodedPackets = {new LongAdder(), new LongAdder()};
+    private final LongAdder[] decodedBytes = {new LongAdder(), new LongAdder()};
+
+    private final PacketBundler bundler = new PacketBundler(this);
+    private BooleanSupplier coalescing = () -> false;
 
     private final Logger log;
 
@@ -33,23 +56,49 @@ public class PacketHandler {
         this.channelName = channelName;
         this.log = log;
         channel = NetworkRegistry.ChannelBuilder.named(channelName)
-                .networkProtocolVersion(() -> Integer.toString(1))
-                .clientAcceptedVersions(e -> true)
-                .serverAcceptedVersions(e -> true)
+                .networkProtocolVersion(() -> PROTOCOL_VERSION)
+                .clientAcceptedVersions(PacketHandler::acceptsVersion)
+                .serverAcceptedVersions(PacketHandler::acceptsVersion)
                 .eventNetworkChannel();
         if (FMLEnvironment.dist == Dist.CLIENT) {
             channel.registerObject(new ClientHandler());
         }
         channel.registerObject(new ServerHandler());
+        synchronized (HANDLERS) {
+            HANDLERS.add(this);
+        }
+    }
+
+    /**
+     * Peers without the channel (absent or vanilla) are still allowed, as before; peers with a different protocol version are rejected.
+     */
+    private static boolean acceptsVersion(String version) {
+
+        return PROTOCOL_VERSION.equals(version) || NetworkRegistry.ABSENT.equals(version) || NetworkRegistry.ACCEPTVANILLA.equals(version);
     }
 
-    @SuppressWarnings ("unchecked")
     public <T extends IPacket> void registerPacket(int id, Supplier<? super T> constructor) {
 
-        if (id <= 0 || id >= 255) {
-            throw new IllegalArgumentException(String.format("Packet id(%s) not within bounds id <= 0 || id >= 255", id));
+        registerPacket(id, constructor, false);
+    }
+
+    /**
+     * Registers a packet type. Ids are written as varints, so ids below 128 take a single byte; 0 is reserved for bundles.
+     *
+     * @param stateless If TRUE, the packet has no fields and a single instance is reused for every packet received.
+     */
+    @SuppressWarnings ("unchecked")
+    public <T extends IPacket> void registerPacket(int id, Supplier<? super T> constructor, boolean stateless) {
+
+        if (id <= PacketBundler.BUNDLE_ID) {
+            throw new IllegalArgumentException(String.format("Packet id(%s) not within bounds id <= 0", id));
+        }
+        if (id >= types.length) {
+            types = Arrays.copyOf(types, Math.max(id + 1, types.length * 2));
         }
-        packets.put((byte) id, (Supplier<IPacket>) constructor);
+        Supplier<IPacket> factory = (Supplier<IPacket>) constructor;
+        IPacket instance = factory.get();
+        types[id] = new PacketType(stateless ? () -> instance : factory, instance.getClass().getSimpleName());
         log.debug("Channel {}, Register packet, ID: {}", channelName, id);
     }
 
@@ -63,33 +112,223 @@ public class PacketHandler {
         return log;
     }
 
+    // region COALESCING
+
+    /**
+     * Enables queueing of this channel's client packets until the end of the server tick; see {@link PacketBundler}.
+     */
+    public void setCoalescing(BooleanSupplier coalescing) {
+
+        this.coalescing = coalescing;
+    }
+
+    /**
+     * Client packets are only queued when sent from the server thread.
+     */
+    public boolean isCoalescing() {
+
+        if (!coalescing.getAsBoolean()) {
+            return false;
+        }
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        return server != null && server.isSameThread();
+    }
+
+    public void queue(IPacketClient packet, ServerPlayer player) {
+
+        bundler.queue(player, packet, PacketBundler.serialize(packet));
+    }
+
+    public void queueAround(IPacketClient packet, double x, double y, double z, double range, ResourceKey<Level> dim) {
+
+        ServerLevel level = ServerLifecycleHooks.getCurrentServer().getLevel(dim);
+        if (level == null) {
+            return;
+        }
+        ByteBuf data = null;
+        double rangeSqr = range * range;
+        for (ServerPlayer player : level.players()) {
+            if (player.distanceToSqr(x, y, z) < rangeSqr) {
+                if (data == null) {
+                    data = PacketBundler.serialize(packet);
+                }
+                bundler.queue(player, packet, data);
+            }
+        }
+    }
+
+    public void queueChunk(IPacketClient packet, ServerLevel level, ChunkPos pos) {
+
+        List<ServerPlayer> players = ChunkWatchers.get(level, pos);
+        if (players.isEmpty()) {
+            return;
+        }
+        ByteBuf data = PacketBundler.serialize(packet);
+        for (int i = 0, size = players.size(); i < size; ++i) {
+            bundler.queue(players.get(i), packet, data);
+        }
+    }
+
+    /**
+     * Sends everything queued on this channel.
+     */
+    public void flush() {
+
+        if (!bundler.isEmpty()) {
+            bundler.flush();
+        }
+    }
+
+    public static List<PacketHandler> getHandlers() {
+
+        synchronized (HANDLERS) {
+            return List.copyOf(HANDLERS);
+        }
+    }
+
+    /**
+     * Sends everything queued on every channel; called at the end of each server tick.
+     */
+    public static void flushAll() {
+
+        synchronized (HANDLERS) {
+            for (PacketHandler handler : HANDLERS) {
+                handler.flush();
+            }
+        }
+    }
+    // endregion
+
+    // region METRICS
+
+    /**
+     * Packets decoded on this channel; the client side counts packets received from the server and vice versa.
+     */
+    public long getDecodedPackets(boolean client) {
+
+        return decodedPackets[client ? 0 : 1].sum();
+    }
+
+    public long getDecodedBytes(boolean client) {
+
+        return decodedBytes[client ? 0 : 1].sum();
+    }
+
+    /**
+     * One past the highest registered packet id.
+     */
+    public int getPacketIdLimit() {
+
+        return types.length;
+    }
+
+    /**
+     * Receive-side counters for a packet type; the client side counts packets received from the server and vice versa.
+     *
+     * @return The counters, or null if no packet is registered with the id.
+     */
+    @Nullable
+    public PacketStats getStats(int id, boolean client) {
+
+        PacketType type = id >= 0 && id < types.length ? types[id] : null;
+        return type == null ? null : type.stats[client ? 0 : 1];
+    }
+
+    public void resetStats() {
+
+        for (PacketType type : types) {
+            if (type != null) {
+                type.stats[0].reset();
+                type.stats[1].reset();
+            }
+        }
+    }
+
+    public long getQueuedPackets() {
+
+        return bundler.getQueued();
+    }
+
+    /**
+     * Queued packets which were replaced by a later packet for the same tile before being sent.
+     */
+    public long getCollapsedPackets() {
+
+        return bundler.getCollapsed();
+    }
+
+    public long getFlushedPayloads() {
+
+        return bundler.getPayloads();
+    }
+    // endregion
+
+    /**
+     * Wraps a retained slice of the payload rather than a copy; the slice must be released once the packet has been handled.
+     */
+    private FriendlyByteBuf retain(ByteBuf payload, boolean client) {
+
+        int side = client ? 0 : 1;
+        decodedPackets[side].increment();
+        decodedBytes[side].add(payload.readableBytes());
+        return new FriendlyByteBuf(payload.retainedSlice());
+    }
+
+    @Nullable
+    private IPacket decode(FriendlyByteBuf buf, boolean client) {
+
+        int size = buf.readableBytes();
+        int id = buf.readVarInt();
+        PacketType type = id > 0 && id < types.length ? types[id] : null;
+        if (type == null) {
+            log.error("Received unregistered packet! ID: {}, Side: {}", id, client ? "Client" : "Server");
+            return null;
+        }
+        IPacket packet = type.factory.get();
+        if (client ? !(packet instanceof IPacketClient) : !(packet instanceof IPacketServer)) {
+            log.error("Received packet ID that isn't an {}? ID: {}", client ? "IPacketClient" : "IPacketServer", id);
+            return null;
+        }
+        long start = System.nanoTime();
+        packet.read(buf);
+        type.stats[client ? 0 : 1].onDecoded(size, System.nanoTime() - start);
+        return packet;
+    }
+
+    private void onHandled(IPacket packet, boolean client, long start) {
+
+        types[packet.getPacketId()].stats[client ? 0 : 1].onHandled(System.nanoTime() - start);
+    }
+
     // The ClientHandler, handles packets sent from the server to the client.
     private class ClientHandler {
 
         @SubscribeEvent
         public void onPayload(NetworkEvent.ServerCustomPayloadEvent event) {
 
-            ByteBuf payload = event.getPayload().copy();
-            FriendlyByteBuf buf = new FriendlyByteBuf(payload);
-
             NetworkEvent.Context ctx = event.getSource().get();
             ctx.setPacketHandled(true);
-            byte id = (byte) buf.readUnsignedByte();
-            Supplier<IPacket> supplier = packets.get(id);
-            if (supplier == null) {
-                log.error("Received unregistered packet! ID: {}, Side: Client", id);
+            FriendlyByteBuf buf = retain(event.getPayload(), true);
+            if (buf.isReadable() && buf.getUnsignedByte(buf.readerIndex()) == PacketBundler.BUNDLE_ID) {
+                onBundle(ctx, buf);
                 return;
             }
-            IPacket packet = supplier.get();
-            if (!(packet instanceof IPacketClient)) {
-                log.error("Received packet ID that isn't an IPacketClient? ID: {}", id);
+            IPacket packet;
+            try {
+                packet = decode(buf, true);
+            } catch (Throwable ex) {
+                buf.release();
+                throw ex;
+            }
+            if (packet == null) {
+                buf.release();
                 return;
             }
-
-            packet.read(buf);
             ctx.enqueueWork(() -> {
+                long start = System.nanoTime();
                 try {
                     ((IPacketClient) packet).handleClient();
+                    onHandled(packet, true, start);
                 } catch (Throwable ex) {
                     log.error("Error handling packet on channel {}.", channelName, ex);
                 } finally {
@@ -98,6 +337,53 @@ public class PacketHandler {
             });
         }
 
+        /**
+         * Decodes every packet in a bundle up front, then handles them in order in a single task.
+         */
+        private void onBundle(NetworkEvent.Context ctx, FriendlyByteBuf bundle) {
+
+            int count;
+            try {
+                bundle.readVarInt();
+                count = bundle.readVarInt();
+            } catch (Throwable ex) {
+                bundle.release();
+                throw ex;
+            }
+            IPacketClient[] packets = new IPacketClient[count];
+            FriendlyByteBuf[] bufs = new FriendlyByteBuf[count];
+            try {
+                for (int i = 0; i < count; ++i) {
+                    bufs[i] = new FriendlyByteBuf(bundle.readRetainedSlice(bundle.readVarInt()));
+                    packets[i] = (IPacketClient) decode(bufs[i], true);
+                }
+            } catch (Throwable ex) {
+                for (FriendlyByteBuf buf : bufs) {
+                    if (buf != null) {
+                        buf.release();
+                    }
+                }
+                throw ex;
+            } finally {
+                bundle.release();
+            }
+            ctx.enqueueWork(() -> {
+                for (int i = 0; i < packets.length; ++i) {
+                    try {
+                        if (packets[i] != null) {
+                            long start = System.nanoTime();
+                            packets[i].handleClient();
+                            onHandled(packets[i], true, start);
+                        }
+                    } catch (Throwable ex) {
+                        log.error("Error handling packet on channel {}.", channelName, ex);
+                    } finally {
+                        bufs[i].release();
+                    }
+                }
+            });
+        }
+
     }
 
     // The ServerHandler, handles packets sent from the client to the server.
@@ -106,38 +392,49 @@ public class PacketHandler {
         @SubscribeEvent
         public void onPayload(NetworkEvent.ClientCustomPayloadEvent event) {
 
-            ByteBuf payload = event.getPayload().copy();
-            FriendlyByteBuf buf = new FriendlyByteBuf(payload);
-
             NetworkEvent.Context ctx = event.getSource().get();
             ctx.setPacketHandled(true);
-            byte id = (byte) buf.readUnsignedByte();
-            Supplier<IPacket> supplier = packets.get(id);
-            if (supplier == null) {
-                log.error("Received unregistered packet! ID: {}, Side: Server", id);
-                return;
+            FriendlyByteBuf buf = retain(event.getPayload(), false);
+            IPacket packet;
+            try {
+                packet = decode(buf, false);
+            } catch (Throwable ex) {
+                buf.release();
+                throw ex;
             }
-            IPacket packet = supplier.get();
-            if (!(packet instanceof IPacketServer)) {
-                log.error("Received packet ID that isn't an IPacketServer? ID: {}", id);
-                return;
-            }
-
-            packet.read(buf);
             PacketListener netHandler = ctx.getNetworkManager().getPacketListener();
-            if (netHandler instanceof ServerGamePacketListenerImpl gamePacketListener) {
-                ctx.enqueueWork(() -> {
-                    try {
-                        ((IPacketServer) packet).handleServer(gamePacketListener.player);
-                    } catch (Throwable ex) {
-                        log.error("Error handling packet on channel {}.", channelName, ex);
-                    } finally {
-                        buf.release();
-                    }
-                });
+            if (packet == null || !(netHandler instanceof ServerGamePacketListenerImpl gamePacketListener)) {
+                buf.release();
+                return;
             }
+            ctx.enqueueWork(() -> {
+                long start = System.nanoTime();
+                try {
+                    ((IPacketServer) packet).handleServer(gamePacketListener.player);
+                    onHandled(packet, false, start);
+                } catch (Throwable ex) {
+                    log.error("Error handling packet on channel {}.", channelName, ex);
+                } finally {
+                    buf.release();
+                }
+            });
         }
 
     }
 
+    // region PACKET TYPE
+    private static class PacketType {
+
+        final Supplier<IPacket> factory;
+        // Index 0 is the client side, 1 the server side.
+        final PacketStats[] stats;
+
+        PacketType(Supplier<IPacket> factory, String name) {
+
+            this.factory = factory;
+            this.stats = new PacketStats[]{new PacketStats(name), new PacketStats(name)};
+        }
+
+    }
+    // endregion
 }
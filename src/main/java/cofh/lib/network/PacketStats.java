@@ -0,0 +1,72 @@
+package cofh.lib.network;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Receive-side counters for one packet type on one side of a channel.
+ * <p>
+ * Decoding happens on the network thread and handling on the main thread, so all counters are {@link LongAdder}s.
+ */
+public final class PacketStats {
+
+    private final String name;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder handleNanos = new LongAdder();
+
+    PacketStats(String name) {
+
+        this.name = name;
+    }
+
+    void onDecoded(int size, long nanos) {
+
+        count.increment();
+        bytes.add(size);
+        decodeNanos.add(nanos);
+    }
+
+    void onHandled(long nanos) {
+
+        handleNanos.add(nanos);
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public long getCount() {
+
+        return count.sum();
+    }
+
+    /**
+     * Payload bytes, including the packet id.
+     */
+    public long getBytes() {
+
+        return bytes.sum();
+    }
+
+    public long getDecodeNanos() {
+
+        return decodeNanos.sum();
+    }
+
+    public long getHandleNanos() {
+
+        return handleNanos.sum();
+    }
+
+    public void reset() {
+
+        count.reset();
+        bytes.reset();
+        decodeNanos.reset();
+        handleNanos.reset();
+    }
+
+}
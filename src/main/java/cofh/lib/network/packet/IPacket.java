@@ -15,13 +15,25 @@ import org.apache.commons.lang3.tuple.Pair;
 public interface IPacket {
 
     /**
-     * The id for this packet.
-     * The packet id bounds are 0 < id < 255
+     * The id for this packet, truncated to a byte.
+     * Kept for existing implementations; the id on the wire comes from {@link #getPacketId()}.
      *
      * @return The id.
      */
     byte getId();
 
+    /**
+     * The id for this packet.
+     * The packet id bounds are 0 < id, written as a varint.
+     * Defaults to {@link #getId()} read as an unsigned byte, which covers every id the byte-based format allowed.
+     *
+     * @return The id.
+     */
+    default int getPacketId() {
+
+        return getId() & 0xFF;
+    }
+
     /**
      * The PacketHandler that can handle this packet.
      *
@@ -65,7 +77,7 @@ public interface IPacket {
     default Packet<?> toVanillaPacket(NetworkDirection direction, int index) {
 
         FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
-        buf.writeByte(getId());
+        buf.writeVarInt(getPacketId());
         write(buf);
         return direction.buildPacket(Pair.of(buf, index), getHandler().getChannelName()).getThis();
     }
@@ -1,5 +1,7 @@
 package cofh.lib.network.packet;
 
+import cofh.lib.network.ChunkWatchers;
+import cofh.lib.network.PacketHandler;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.resources.ResourceKey;
@@ -14,6 +16,8 @@ import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.server.ServerLifecycleHooks;
 
+import java.util.List;
+
 /**
  * Packet sent FROM Servers TO Clients
  *
@@ -21,11 +25,27 @@ import net.minecraftforge.server.ServerLifecycleHooks;
  */
 public interface IPacketClient extends IPacket {
 
+    /**
+     * Returned by {@link #coalesceKey()} for packets which must never be collapsed.
+     */
+    long NO_COALESCE = Long.MIN_VALUE;
+
     /**
      * Handle the packet on the client side.
      */
     void handleClient();
 
+    /**
+     * When the handler is coalescing, a queued packet replaces any packet with the same id and key queued earlier in the tick for the
+     * same player. Only override this if the packet carries the complete state for the key (e.g. a tile position).
+     *
+     * @return The key, or {@link #NO_COALESCE}.
+     */
+    default long coalesceKey() {
+
+        return NO_COALESCE;
+    }
+
     /**
      * Sends this packet to all clients on the server.
      */
@@ -43,6 +63,11 @@ public interface IPacketClient extends IPacket {
      */
     default void sendToPlayer(ServerPlayer player) {
 
+        PacketHandler handler = getHandler();
+        if (handler.isCoalescing()) {
+            handler.queue(this, player);
+            return;
+        }
         player.connection.send(toVanillaPacket(NetworkDirection.PLAY_TO_CLIENT));
     }
 
@@ -116,9 +141,25 @@ public interface IPacketClient extends IPacket {
      */
     default void sendToAllAround(double x, double y, double z, double range, ResourceKey<Level> dim) {
 
-        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
-        PlayerList list = server.getPlayerList();
-        list.broadcast(null, x, y, z, range, dim, toVanillaPacket(NetworkDirection.PLAY_TO_CLIENT));
+        PacketHandler handler = getHandler();
+        if (handler.isCoalescing()) {
+            handler.queueAround(this, x, y, z, range, dim);
+            return;
+        }
+        ServerLevel level = ServerLifecycleHooks.getCurrentServer().getLevel(dim);
+        if (level == null) {
+            return;
+        }
+        Packet<?> packet = null;
+        double rangeSqr = range * range;
+        for (ServerPlayer player : level.players()) {
+            if (player.distanceToSqr(x, y, z) < rangeSqr) {
+                if (packet == null) { // Serialized once, and only if someone is in range.
+                    packet = toVanillaPacket(NetworkDirection.PLAY_TO_CLIENT);
+                }
+                player.connection.send(packet);
+            }
+        }
     }
     // endregion
 
@@ -168,9 +209,19 @@ public interface IPacketClient extends IPacket {
      */
     default void sendToChunk(ServerLevel world, ChunkPos pos) {
 
+        PacketHandler handler = getHandler();
+        if (handler.isCoalescing()) {
+            handler.queueChunk(this, world, pos);
+            return;
+        }
+        List<ServerPlayer> players = ChunkWatchers.get(world, pos);
+        if (players.isEmpty()) {
+            return;
+        }
         Packet<?> packet = toVanillaPacket(NetworkDirection.PLAY_TO_CLIENT);
-        world.getChunkSource().chunkMap.getPlayers(pos, false)
-                .forEach(e -> e.connection.send(packet));
+        for (int i = 0, size = players.size(); i < size; ++i) {
+            players.get(i).connection.send(packet);
+        }
     }
     // endregion
 }
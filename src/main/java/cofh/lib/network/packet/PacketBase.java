@@ -1,6 +1,8 @@
 package cofh.lib.network.packet;
 
 import cofh.lib.network.PacketHandler;
+import io.netty.buffer.PooledByteBufAllocator;
+import net.minecraft.network.FriendlyByteBuf;
 
 public abstract class PacketBase implements IPacket {
 
@@ -13,12 +15,27 @@ public abstract class PacketBase implements IPacket {
         this.handler = handler;
     }
 
+    /**
+     * A pooled direct buffer for building a payload which is only needed until the packet has been serialized. The caller must release it
+     * once the packet has been sent.
+     */
+    protected static FriendlyByteBuf pooledBuffer() {
+
+        return new FriendlyByteBuf(PooledByteBufAllocator.DEFAULT.directBuffer());
+    }
+
     @Override
     public byte getId() {
 
         return (byte) id;
     }
 
+    @Override
+    public int getPacketId() {
+
+        return id;
+    }
+
     @Override
     public PacketHandler getHandler() {
 
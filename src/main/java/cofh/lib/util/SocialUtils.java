@@ -1,22 +1,30 @@
 package cofh.lib.util;
 
 import com.mojang.authlib.GameProfile;
-import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.saveddata.SavedData;
 
+import javax.annotation.Nullable;
 import java.util.Map;
-import java.util.Set;
-import java.util.TreeMap;
 import java.util.UUID;
 
 import static cofh.lib.util.constants.NBTTags.TAG_NAME;
 import static cofh.lib.util.constants.NBTTags.TAG_UUID;
 import static net.minecraft.nbt.Tag.TAG_COMPOUND;
 
+/**
+ * Server-wide friend lists.
+ * <p>
+ * Friend lists are held in memory as a UUID-keyed graph (owner -> friend -> last known name) stored in a single {@link SavedData} on the
+ * overworld, so an access check is two hash lookups on UUIDs the caller already has.
+ */
 public class SocialUtils {
 
     private SocialUtils() {
@@ -25,9 +33,52 @@ public class SocialUtils {
 
     private static final String TAG_FRIENDS = "cofh:friends";
 
+    @Nullable
+    private static MinecraftServer server;
+    @Nullable
+    private static FriendData data;
+
+    private static FriendData friends(MinecraftServer server) {
+
+        if (SocialUtils.server != server || data == null) {
+            data = load(server);
+            SocialUtils.server = server;
+        }
+        return data;
+    }
+
     private static FriendData friends(ServerPlayer player) {
 
-        return player.getLevel().getDataStorage().computeIfAbsent(FriendData::new, FriendData::new, TAG_FRIENDS);
+        return friends(player.server);
+    }
+
+    /**
+     * Friend lists used to be stored per level; any found outside the overworld are merged into the overworld data and emptied.
+     */
+    private static FriendData load(MinecraftServer server) {
+
+        FriendData overworld = server.overworld().getDataStorage().computeIfAbsent(FriendData::new, FriendData::new, TAG_FRIENDS);
+        for (ServerLevel level : server.getAllLevels()) {
+            if (level.dimension() == Level.OVERWORLD) {
+                continue;
+            }
+            FriendData legacy = level.getDataStorage().get(FriendData::new, TAG_FRIENDS);
+            if (legacy != null && !legacy.friendLists.isEmpty()) {
+                overworld.merge(legacy);
+                legacy.friendLists.clear();
+                legacy.setDirty();
+            }
+        }
+        return overworld;
+    }
+
+    /**
+     * Drops the reference to the current server's data; called when the server stops.
+     */
+    public static void clear() {
+
+        server = null;
+        data = null;
     }
 
     // region FRIEND PASSTHROUGH
@@ -53,14 +104,24 @@ public class SocialUtils {
 
     public static boolean isFriendOrSelf(GameProfile owner, ServerPlayer player) {
 
-        return friends(player).isFriendOrSelf(owner, player);
+        if (owner == null || player == null) {
+            return false;
+        }
+        UUID ownerID = owner.getId();
+        UUID playerID = player.getGameProfile().getId();
+        return ownerID.equals(playerID) || friends(player).isFriend(ownerID, playerID);
+    }
+
+    public static boolean isFriend(MinecraftServer server, UUID owner, UUID other) {
+
+        return friends(server).isFriend(owner, other);
     }
     // endregion
 
     // region FRIEND DATA
     private static class FriendData extends SavedData {
 
-        private final Map<String, Set<GameProfile>> friendLists = new TreeMap<>();
+        private final Map<UUID, Map<UUID, String>> friendLists = new Object2ObjectOpenHashMap<>();
 
         FriendData() {
 
@@ -69,28 +130,38 @@ public class SocialUtils {
         FriendData(CompoundTag nbt) {
 
             for (String player : nbt.getAllKeys()) {
+                UUID playerID;
+                try {
+                    playerID = UUID.fromString(player);
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
                 ListTag list = nbt.getList(player, TAG_COMPOUND);
-                Set<GameProfile> friendList = new ObjectOpenHashSet<>();
+                Map<UUID, String> friendList = new Object2ObjectOpenHashMap<>(list.size());
                 for (int i = 0; i < list.size(); ++i) {
                     CompoundTag subTag = list.getCompound(i);
-                    friendList.add(new GameProfile(UUID.fromString(subTag.getString(TAG_UUID)), subTag.getString(TAG_NAME)));
+                    friendList.put(UUID.fromString(subTag.getString(TAG_UUID)), subTag.getString(TAG_NAME));
+                }
+                if (!friendList.isEmpty()) {
+                    friendLists.put(playerID, friendList);
                 }
-                friendLists.put(player, friendList);
             }
         }
 
+        void merge(FriendData other) {
+
+            for (Map.Entry<UUID, Map<UUID, String>> friendList : other.friendLists.entrySet()) {
+                friendLists.computeIfAbsent(friendList.getKey(), id -> new Object2ObjectOpenHashMap<>()).putAll(friendList.getValue());
+            }
+            this.setDirty();
+        }
+
         boolean addFriend(Player player, GameProfile friend) {
 
-            if (player == null || friend == null) {
+            if (player == null || friend == null || friend.getId() == null) {
                 return false;
             }
-            String playerUUID = player.getGameProfile().getId().toString();
-            Set<GameProfile> set = friendLists.get(playerUUID);
-            if (set == null) {
-                set = new ObjectOpenHashSet<>();
-            }
-            set.add(friend);
-            friendLists.put(playerUUID, set);
+            friendLists.computeIfAbsent(player.getGameProfile().getId(), id -> new Object2ObjectOpenHashMap<>()).put(friend.getId(), friend.getName());
             this.setDirty();
             return true;
         }
@@ -100,10 +171,16 @@ public class SocialUtils {
             if (player == null || friend == null) {
                 return false;
             }
-            String playerUUID = player.getGameProfile().getId().toString();
-            Set<GameProfile> set = friendLists.get(playerUUID);
+            UUID playerID = player.getGameProfile().getId();
+            Map<UUID, String> friendList = friendLists.get(playerID);
+            if (friendList == null || friendList.remove(friend.getId()) == null) {
+                return false;
+            }
+            if (friendList.isEmpty()) {
+                friendLists.remove(playerID);
+            }
             this.setDirty();
-            return set != null && set.remove(friend);
+            return true;
         }
 
         public boolean clearFriendList(Player player) {
@@ -111,7 +188,7 @@ public class SocialUtils {
             if (player == null) {
                 return false;
             }
-            friendLists.remove(player.getGameProfile().getId().toString());
+            friendLists.remove(player.getGameProfile().getId());
             this.setDirty();
             return true;
         }
@@ -126,32 +203,24 @@ public class SocialUtils {
             return true;
         }
 
-        boolean isFriendOrSelf(GameProfile owner, Player player) {
+        boolean isFriend(UUID owner, UUID other) {
 
-            if (owner == null || player == null) {
-                return false;
-            }
-            String friendName = player.getGameProfile().getName();
-            if (friendName.equals(owner.getName())) {
-                return true;
-            }
-            String playerUUID = owner.getId().toString();
-            Set<GameProfile> set = friendLists.get(playerUUID);
-            return set != null && set.contains(player.getGameProfile());
+            Map<UUID, String> friendList = friendLists.get(owner);
+            return friendList != null && friendList.containsKey(other);
         }
 
         @Override
         public CompoundTag save(CompoundTag nbt) {
 
-            for (Map.Entry<String, Set<GameProfile>> friendList : friendLists.entrySet()) {
+            for (Map.Entry<UUID, Map<UUID, String>> friendList : friendLists.entrySet()) {
                 ListTag list = new ListTag();
-                for (GameProfile friend : friendList.getValue()) {
+                for (Map.Entry<UUID, String> friend : friendList.getValue().entrySet()) {
                     CompoundTag subTag = new CompoundTag();
-                    subTag.putString(TAG_UUID, friend.getId().toString());
-                    subTag.putString(TAG_NAME, friend.getName());
+                    subTag.putString(TAG_UUID, friend.getKey().toString());
+                    subTag.putString(TAG_NAME, friend.getValue());
                     list.add(subTag);
                 }
-                nbt.put(friendList.getKey(), list);
+                nbt.put(friendList.getKey().toString(), list);
             }
             return nbt;
         }
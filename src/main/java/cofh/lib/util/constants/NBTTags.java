@@ -41,9 +41,12 @@ public class NBTTags {
     public static final String TAG_ENERGY_SEND = "EnergySend";
     public static final String TAG_FACING = "Facing";
     public static final String TAG_FILTER = "Filter";
+    public static final String TAG_FILTER_EFFECTS = "FilterEffects";
+    public static final String TAG_FILTER_MODS = "FilterMods";
     public static final String TAG_FILTER_OPT_LIST = "AllowList";
     public static final String TAG_FILTER_OPT_NBT = "CheckNBT";
     public static final String TAG_FILTER_OPT_TAG = "CheckTag";
+    public static final String TAG_FILTER_TAGS = "FilterTags";
     public static final String TAG_FILTER_TYPE = "FilterType";
     public static final String TAG_FLUID = "Fluid";
     public static final String TAG_FLUID_NAME = "FluidName";
@@ -1,5 +1,6 @@
 package cofh.lib.util.helpers;
 
+import cofh.lib.util.random.ThreadRandomSource;
 import net.minecraft.util.Mth;
 import net.minecraft.util.RandomSource;
 import net.minecraft.world.phys.Vec2;
@@ -10,13 +11,16 @@ import net.minecraft.world.phys.Vec3;
  *
  * @author King Lemming
  */
-public final class MathHelper {
+public final class MathHelper implements TrigTables {
 
     private MathHelper() {
 
     }
 
-    public static final RandomSource RANDOM = RandomSource.create();
+    /**
+     * Shared random source; safe to use from any thread.
+     */
+    public static final RandomSource RANDOM = ThreadRandomSource.INSTANCE;
     public static final double PI = Math.PI;
     public static final double PI_2 = Math.PI * 2.0D;
     public static final double PHI = 1.618033988749894;
@@ -29,23 +33,6 @@ public final class MathHelper {
     public static final float F_TO_DEG = (float) TO_DEG;
     public static final float F_TO_RAD = (float) TO_RAD;
 
-    public static final double[] SIN_TABLE = new double[65536];
-    public static final float[] ASIN_TABLE = new float[65536];
-
-    static {
-        for (int i = 0; i < 65536; ++i) {
-            SIN_TABLE[i] = Math.sin(i / 65536D * 2 * Math.PI);
-        }
-        SIN_TABLE[0] = 0;
-        SIN_TABLE[16384] = 1;
-        SIN_TABLE[32768] = 0;
-        SIN_TABLE[49152] = -1;
-
-        for (int i = 0; i < 65536; ++i) {
-            ASIN_TABLE[i] = (float) Math.asin((i - 32768) / 32768D);
-        }
-    }
-
     // region RANDOMS
     public static int nextInt(RandomSource rand, int min, int max) {
 
@@ -104,9 +91,11 @@ public final class MathHelper {
     // endregion
 
     // region TRIGONOMETRY
+    // sin and cos share the game's own lookup table (same indexing as Mth). The old SIN_TABLE and ASIN_TABLE are inherited from
+    // TrigTables and only built if something still reads them.
     public static double sin(double d) {
 
-        return SIN_TABLE[(int) ((float) d * 10430.378F) & 65535];
+        return Mth.sin((float) d);
     }
 
     public static float sin(float d) {
@@ -116,7 +105,7 @@ public final class MathHelper {
 
     public static double cos(double d) {
 
-        return SIN_TABLE[(int) ((float) d * 10430.378F + 16384.0F) & 65535];
+        return Mth.cos((float) d);
     }
 
     public static float cos(float d) {
@@ -124,9 +113,18 @@ public final class MathHelper {
         return Mth.cos(d);
     }
 
+    /**
+     * Polynomial approximation (Abramowitz and Stegun 4.4.45); absolute error is below 7e-5 over [-1, 1]. Inputs outside that range are
+     * clamped.
+     */
     public static float asin(float d) {
 
-        return ASIN_TABLE[(int) (d * 32768.0F + 32768.0F) & 65535];
+        float x = Math.abs(d);
+        if (x >= 1.0F) {
+            return d < 0 ? -F_PI * 0.5F : F_PI * 0.5F;
+        }
+        float r = F_PI * 0.5F - (float) Math.sqrt(1.0F - x) * (1.5707288F + x * (-0.2121144F + x * (0.0742610F - 0.0187293F * x)));
+        return d < 0 ? -r : r;
     }
 
     public static float acos(float d) {
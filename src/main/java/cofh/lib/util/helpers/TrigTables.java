@@ -0,0 +1,54 @@
+package cofh.lib.util.helpers;
+
+/**
+ * Lookup tables formerly built by {@link MathHelper}'s static initializer.
+ * <p>
+ * {@link MathHelper} implements this interface so {@code MathHelper.SIN_TABLE} and {@code MathHelper.ASIN_TABLE} keep resolving, for both
+ * source and existing binaries. Interface fields are initialized with the interface rather than the implementing class, so the tables are
+ * only built the first time one of them is actually read.
+ */
+public interface TrigTables {
+
+    /**
+     * @deprecated Use {@link MathHelper#sin(double)} and {@link MathHelper#cos(double)}.
+     */
+    @Deprecated
+    double[] SIN_TABLE = Init.sinTable();
+
+    /**
+     * @deprecated Use {@link MathHelper#asin(float)}.
+     */
+    @Deprecated
+    float[] ASIN_TABLE = Init.asinTable();
+
+    final class Init {
+
+        private Init() {
+
+        }
+
+        private static double[] sinTable() {
+
+            double[] table = new double[65536];
+            for (int i = 0; i < 65536; ++i) {
+                table[i] = Math.sin(i / 65536D * 2 * Math.PI);
+            }
+            table[0] = 0;
+            table[16384] = 1;
+            table[32768] = 0;
+            table[49152] = -1;
+            return table;
+        }
+
+        private static float[] asinTable() {
+
+            float[] table = new float[65536];
+            for (int i = 0; i < 65536; ++i) {
+                table[i] = (float) Math.asin((i - 32768) / 32768D);
+            }
+            return table;
+        }
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package cofh.lib.util.random;
+
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.levelgen.PositionalRandomFactory;
+import net.minecraft.world.level.levelgen.RandomSupport;
+import net.minecraft.world.level.levelgen.XoroshiroRandomSource;
+
+/**
+ * A {@link RandomSource} which forwards every call to a generator owned by the calling thread.
+ * <p>
+ * Vanilla's default source throws if it is used from more than one thread, which a shared static source eventually is (chunk meshing,
+ * worldgen, sound and render threads). This one can be shared freely: each thread lazily gets its own Xoroshiro generator with a unique
+ * seed, so there is no locking and no allocation per call. Seeding it only affects the calling thread.
+ */
+public final class ThreadRandomSource implements RandomSource {
+
+    public static final ThreadRandomSource INSTANCE = new ThreadRandomSource();
+
+    private static final ThreadLocal<XoroshiroRandomSource> SOURCE = ThreadLocal.withInitial(() -> new XoroshiroRandomSource(RandomSupport.generateUniqueSeed()));
+    private static final ThreadLocal<XoroshiroRandomSource> SEEDED = ThreadLocal.withInitial(() -> new XoroshiroRandomSource(0L));
+
+    private ThreadRandomSource() {
+
+    }
+
+    /**
+     * The calling thread's generator. Must not be handed to another thread.
+     */
+    public static RandomSource current() {
+
+        return SOURCE.get();
+    }
+
+    /**
+     * Returns the calling thread's scratch generator, reset to the given seed, for effects which must be reproducible (e.g. the same
+     * pattern on every client for a given position and game time). The returned source is reused by the next call on this thread, so
+     * it should not be stored.
+     */
+    public static RandomSource seeded(long seed) {
+
+        XoroshiroRandomSource source = SEEDED.get();
+        source.setSeed(seed);
+        return source;
+    }
+
+    /**
+     * Combines two values into a well-mixed seed, e.g. a packed position and a game time.
+     */
+    public static long seed(long a, long b) {
+
+        return RandomSupport.mixStafford13(a ^ RandomSupport.mixStafford13(b + RandomSupport.GOLDEN_RATIO_64));
+    }
+
+    @Override
+    public RandomSource fork() {
+
+        return SOURCE.get().fork();
+    }
+
+    @Override
+    public PositionalRandomFactory forkPositional() {
+
+        return SOURCE.get().forkPositional();
+    }
+
+    @Override
+    public void setSeed(long seed) {
+
+        SOURCE.get().setSeed(seed);
+    }
+
+    @Override
+    public int nextInt() {
+
+        return SOURCE.get().nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+
+        return SOURCE.get().nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+
+        return SOURCE.get().nextLong();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+
+        return SOURCE.get().nextBoolean();
+    }
+
+    @Override
+    public float nextFloat() {
+
+        return SOURCE.get().nextFloat();
+    }
+
+    @Override
+    public double nextDouble() {
+
+        return SOURCE.get().nextDouble();
+    }
+
+    @Override
+    public double nextGaussian() {
+
+        return SOURCE.get().nextGaussian();
+    }
+
+}